@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+/**
+ * An element of a parsed XML instance document.  Names are local names;
+ * the text is the trimmed character data directly inside the element.
+ * The document itself is represented by an element without a name whose
+ * only child is the document element; its text is the version in the
+ * DOCTYPE declaration, if any.
+ */
+final class DDElement {
+    static final String[] NO_ATTRIBUTES = new String[0];
+    static final DDElement[] NO_CHILDREN = new DDElement[0];
+
+    final String name;
+    final DDElement parent;
+    // The position of the element among the children of its parent.
+    final int index;
+    // Attribute names and values, alternately.
+    final String[] attributes;
+    String text = "";
+    DDElement[] children = NO_CHILDREN;
+
+    DDElement(String name, DDElement parent, int index,
+            String[] attributes) {
+        this.name = name;
+        this.parent = parent;
+        this.index = index;
+        this.attributes = attributes;
+    }
+
+    String getAttribute(String attrName) {
+        for (int i = 0; i < attributes.length; i += 2) {
+            if (attributes[i].equals(attrName)) {
+                return attributes[i + 1];
+            }
+        }
+        return null;
+    }
+
+    String[] getAttributeNames() {
+        if (attributes.length == 0) {
+            return null;
+        }
+        String[] names = new String[attributes.length / 2];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = attributes[2 * i];
+        }
+        return names;
+    }
+}
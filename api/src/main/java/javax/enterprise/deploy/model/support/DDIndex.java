@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the elements of a parsed document by local name and by
+ * absolute path of local names, such as <code>/ejb-jar/enterprise-beans
+ * /session</code>.  Each list of elements is in document order.
+ */
+final class DDIndex {
+    private static final DDElement[] NONE = new DDElement[0];
+
+    // The document indexed; the index keeps it in memory.
+    final DDElement document;
+    private final Map<String, DDElement[]> byName;
+    private final Map<String, DDElement[]> byPath;
+
+    DDIndex(DDElement document) {
+        this.document = document;
+        Map<String, List<DDElement>> names =
+                new HashMap<String, List<DDElement>>();
+        Map<String, List<DDElement>> paths =
+                new HashMap<String, List<DDElement>>();
+        for (DDElement child : document.children) {
+            add(child, "", names, paths);
+        }
+        this.byName = toArrays(names);
+        this.byPath = toArrays(paths);
+    }
+
+    /**
+     * Returns the elements with a local name, in document order.
+     */
+    DDElement[] byName(String name) {
+        DDElement[] elements = byName.get(name);
+        return elements == null ? NONE : elements;
+    }
+
+    /**
+     * Returns the elements at an absolute path, in document order.
+     *
+     * @see DDXpath#key
+     */
+    DDElement[] byPath(String path) {
+        DDElement[] elements = byPath.get(path);
+        return elements == null ? NONE : elements;
+    }
+
+    // Walks the tree in document order.
+    private static void add(DDElement element, String parentPath,
+            Map<String, List<DDElement>> names,
+            Map<String, List<DDElement>> paths) {
+        String path = parentPath + "/" + element.name;
+        append(names, element.name, element);
+        append(paths, path, element);
+        for (DDElement child : element.children) {
+            add(child, path, names, paths);
+        }
+    }
+
+    private static void append(Map<String, List<DDElement>> map,
+            String key, DDElement element) {
+        List<DDElement> list = map.get(key);
+        if (list == null) {
+            list = new ArrayList<DDElement>(1);
+            map.put(key, list);
+        }
+        list.add(element);
+    }
+
+    private static Map<String, DDElement[]> toArrays(
+            Map<String, List<DDElement>> lists) {
+        Map<String, DDElement[]> arrays =
+                new HashMap<String, DDElement[]>(lists.size() * 4 / 3 + 1);
+        for (Map.Entry<String, List<DDElement>> e : lists.entrySet()) {
+            List<DDElement> list = e.getValue();
+            arrays.put(e.getKey(), list.toArray(new DDElement[list.size()]));
+        }
+        return arrays;
+    }
+}
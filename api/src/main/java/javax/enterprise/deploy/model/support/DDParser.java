@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Parses XML instance documents with a StAX reader.  DTDs and external
+ * entities are not processed; a DOCTYPE declaration is only read for
+ * the version in its public identifier.
+ */
+final class DDParser {
+
+    private static final Pattern PUBLIC_ID =
+            Pattern.compile("PUBLIC\\s+[\"']([^\"']*)[\"']");
+    private static final Pattern VERSION =
+            Pattern.compile("(\\d+(?:\\.\\d+)+)");
+    private static final XMLInputFactory FACTORY = newFactory();
+
+    private DDParser() {
+    }
+
+    static XMLInputFactory newFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(
+                XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE,
+                Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    static XMLStreamReader open(InputStream in) throws IOException {
+        try {
+            return FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw parseError(e);
+        }
+    }
+
+    /**
+     * Parses a document.
+     *
+     * @return the document node.
+     */
+    static DDElement parse(InputStream in) throws IOException {
+        Map<String, String> names = new HashMap<String, String>();
+        XMLStreamReader reader = open(in);
+        DDElement document = new DDElement(null, null, 0,
+                DDElement.NO_ATTRIBUTES);
+        List<List<DDElement>> children = new ArrayList<List<DDElement>>();
+        List<StringBuilder> texts = new ArrayList<StringBuilder>();
+        children.add(new ArrayList<DDElement>(1));
+        texts.add(new StringBuilder());
+        DDElement current = document;
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    List<DDElement> siblings =
+                            children.get(children.size() - 1);
+                    DDElement element = new DDElement(
+                            intern(names, reader.getLocalName()), current,
+                            siblings.size(), attributes(reader, names));
+                    siblings.add(element);
+                    children.add(new ArrayList<DDElement>());
+                    texts.add(new StringBuilder());
+                    current = element;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    List<DDElement> list =
+                            children.remove(children.size() - 1);
+                    if (!list.isEmpty()) {
+                        current.children =
+                                list.toArray(new DDElement[list.size()]);
+                    }
+                    current.text = texts.remove(texts.size() - 1).toString()
+                            .trim();
+                    current = current.parent;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    texts.get(texts.size() - 1).append(reader.getText());
+                    break;
+                case XMLStreamConstants.DTD:
+                    document.text = dtdVersion(reader.getText());
+                    break;
+                default:
+                    break;
+                }
+            }
+            List<DDElement> top = children.get(0);
+            document.children = top.toArray(new DDElement[top.size()]);
+            return document;
+        } catch (XMLStreamException e) {
+            throw parseError(e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    /**
+     * Evaluates a streamable path from the document in one forward pass,
+     * without building the document tree.  Only the elements on the path
+     * being matched are tracked, and values are held until it is known
+     * whether the elements they descend from pass their tests.
+     *
+     * @return the text of the selected elements or the values of the
+     *         selected attribute, or null if nothing was selected.
+     * @see DDXpath#isStreamable()
+     */
+    static String[] text(InputStream in, DDXpath path) throws IOException {
+        if (path.empty) {
+            return null;
+        }
+        String[] levels = path.levels;
+        String[][] conditions = path.conditions;
+        int last = levels.length;
+        // The values and passed tests of the matched element at each
+        // depth; the document is at depth 0.
+        List<List<String>> values = new ArrayList<List<String>>();
+        boolean[][] passed = new boolean[last + 1][];
+        values.add(new ArrayList<String>());
+        passed[0] = new boolean[conditions[0].length];
+        StringBuilder text = null;
+        // The depth of the current element, and of its deepest ancestor
+        // or self on the path.
+        int depth = 0;
+        int matched = 0;
+        XMLStreamReader reader = open(in);
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    String name = reader.getLocalName();
+                    if (matched == depth) {
+                        pass(conditions[depth], passed[depth], name);
+                    }
+                    depth++;
+                    if (matched == depth - 1 && depth <= last
+                            && DDXpath.matches(levels[depth - 1], name)) {
+                        matched = depth;
+                        values.add(new ArrayList<String>());
+                        passed[depth] = new boolean[conditions[depth].length];
+                        if (depth == last) {
+                            if (path.attribute == null) {
+                                text = new StringBuilder();
+                            } else {
+                                String value =
+                                        attribute(reader, path.attribute);
+                                if (value != null) {
+                                    values.get(depth).add(value);
+                                }
+                            }
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (matched == depth) {
+                        List<String> own = values.remove(depth);
+                        if (text != null) {
+                            own.add(text.toString().trim());
+                            text = null;
+                        }
+                        if (all(passed[depth])) {
+                            values.get(depth - 1).addAll(own);
+                        }
+                        matched--;
+                    }
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    if (text != null && matched == depth) {
+                        text.append(reader.getText());
+                    }
+                    break;
+                default:
+                    break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw parseError(e);
+        } finally {
+            close(reader);
+        }
+        List<String> result = values.get(0);
+        return result.isEmpty() || !all(passed[0]) ? null
+                : result.toArray(new String[result.size()]);
+    }
+
+    static String[] attributes(XMLStreamReader reader,
+            Map<String, String> names) {
+        int count = reader.getAttributeCount();
+        if (count == 0) {
+            return DDElement.NO_ATTRIBUTES;
+        }
+        String[] attributes = new String[2 * count];
+        for (int i = 0; i < count; i++) {
+            attributes[2 * i] = intern(names, reader.getAttributeLocalName(i));
+            attributes[2 * i + 1] = reader.getAttributeValue(i);
+        }
+        return attributes;
+    }
+
+    /**
+     * Returns the version number in the label of a DOCTYPE public
+     * identifier, such as 1.3 for
+     * "-//Sun Microsystems, Inc.//DTD J2EE Application 1.3//EN".
+     *
+     * @return the version, or the empty string.
+     */
+    static String dtdVersion(String doctype) {
+        Matcher id = PUBLIC_ID.matcher(doctype);
+        if (!id.find()) {
+            return "";
+        }
+        String[] parts = id.group(1).split("//");
+        String label = parts.length > 2 ? parts[2] : id.group(1);
+        Matcher version = VERSION.matcher(label);
+        String last = "";
+        while (version.find()) {
+            last = version.group(1);
+        }
+        return last;
+    }
+
+    private static void pass(String[] conditions, boolean[] passed,
+            String child) {
+        for (int i = 0; i < conditions.length; i++) {
+            if (DDXpath.matches(conditions[i], child)) {
+                passed[i] = true;
+            }
+        }
+    }
+
+    private static boolean all(boolean[] passed) {
+        for (int i = 0; i < passed.length; i++) {
+            if (!passed[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Finds an attribute by local name, as DDElement does.
+    private static String attribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (name.equals(reader.getAttributeLocalName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    static void close(XMLStreamReader reader) {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // The underlying stream is closed by the caller.
+        }
+    }
+
+    static IOException parseError(XMLStreamException e) {
+        IOException ex = new IOException(e.getMessage());
+        ex.initCause(e);
+        return ex;
+    }
+
+    private static String intern(Map<String, String> names, String name) {
+        String known = names.get(name);
+        if (known == null) {
+            names.put(name, name);
+            return name;
+        }
+        return known;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled XPath of the form used to navigate deployment descriptors:
+ * a location path of element names separated by slashes, absolute or
+ * relative, in which a step may also be <code>.</code>,
+ * <code>..</code> or <code>*</code>, and whose last step may select an
+ * attribute with <code>@name</code>.  Namespace prefixes are ignored;
+ * steps match local names.  Predicates and other axes are not
+ * supported.
+ *
+ * <p> Paths that descend from the document, possibly stepping back up
+ * with <code>..</code> to test that an element has a child, are also
+ * compiled to a form that can be evaluated in a single pass over the
+ * document; see {@link #isStreamable()}.
+ */
+final class DDXpath {
+    private static final String SELF = ".";
+    private static final String PARENT = "..";
+    private static final String ANY = "*";
+
+    final String expression;
+    final boolean absolute;
+    final String[] steps;
+    // The attribute selected by the last step, or null.
+    final String attribute;
+    // The streaming form: the name test of the element at each depth
+    // below the document, and the names of the children required of the
+    // document and of the element at each depth.  Null if the path
+    // cannot be streamed.
+    final String[] levels;
+    final String[][] conditions;
+    // True if the path steps above the document and selects nothing.
+    final boolean empty;
+    // The absolute path of names the path selects from the document,
+    // such as "/ejb-jar/enterprise-beans", if it only descends by name.
+    final String key;
+
+    private DDXpath(String expression, boolean absolute, String[] steps,
+            String attribute) {
+        this.expression = expression;
+        this.absolute = absolute;
+        this.steps = steps;
+        this.attribute = attribute;
+
+        List<String> names = new ArrayList<String>();
+        List<List<String>> required = new ArrayList<List<String>>();
+        required.add(new ArrayList<String>(0));
+        boolean streamable = true;
+        boolean above = false;
+        for (int i = 0; i < steps.length && streamable && !above; i++) {
+            String step = steps[i];
+            if (SELF.equals(step)) {
+                continue;
+            } else if (PARENT.equals(step)) {
+                if (names.isEmpty()) {
+                    above = true;
+                } else if (!required.get(names.size()).isEmpty()) {
+                    // A test on a grandchild.
+                    streamable = false;
+                } else {
+                    required.remove(names.size());
+                    String child = names.remove(names.size() - 1);
+                    List<String> parent = required.get(names.size());
+                    if (!parent.contains(child)) {
+                        parent.add(child);
+                    }
+                }
+            } else {
+                names.add(step);
+                required.add(new ArrayList<String>(0));
+            }
+        }
+        this.empty = above;
+        if (streamable && !above && !names.isEmpty()) {
+            this.levels = names.toArray(new String[names.size()]);
+            this.conditions = new String[required.size()][];
+            for (int i = 0; i < conditions.length; i++) {
+                List<String> c = required.get(i);
+                conditions[i] = c.toArray(new String[c.size()]);
+            }
+        } else {
+            this.levels = null;
+            this.conditions = null;
+        }
+        this.key = levels == null ? null : key(levels, conditions);
+    }
+
+    private static String key(String[] levels, String[][] conditions) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < levels.length; i++) {
+            if (ANY.equals(levels[i]) || conditions[i].length > 0) {
+                return null;
+            }
+            key.append('/').append(levels[i]);
+        }
+        return conditions[levels.length].length > 0 ? null
+                : key.toString();
+    }
+
+    /**
+     * Compiles an XPath.
+     *
+     * @throws IllegalArgumentException if the XPath is not supported.
+     */
+    static DDXpath compile(String xpath) {
+        String path = xpath.trim();
+        boolean absolute = path.startsWith("/");
+        if (absolute) {
+            path = path.substring(1);
+        }
+        List<String> steps = new ArrayList<String>();
+        String attribute = null;
+        if (path.length() > 0) {
+            String[] parts = path.split("/", -1);
+            for (int i = 0; i < parts.length; i++) {
+                String step = parts[i].trim();
+                if (step.length() == 0 || step.indexOf('[') >= 0
+                        || step.indexOf("::") >= 0) {
+                    throw new IllegalArgumentException(
+                            "Unsupported XPath " + xpath);
+                }
+                if (step.startsWith("@")) {
+                    if (i != parts.length - 1) {
+                        throw new IllegalArgumentException(
+                                "Unsupported XPath " + xpath);
+                    }
+                    attribute = localName(step.substring(1));
+                } else {
+                    steps.add(localName(step));
+                }
+            }
+        }
+        return new DDXpath(xpath, absolute,
+                steps.toArray(new String[steps.size()]), attribute);
+    }
+
+    /**
+     * Tests whether the path, evaluated from the document, can be
+     * evaluated by {@link DDParser#text(java.io.InputStream, DDXpath)}
+     * without building the document tree.
+     */
+    boolean isStreamable() {
+        return empty || levels != null;
+    }
+
+    /**
+     * Tests whether an element name passes a name test.
+     */
+    static boolean matches(String test, String name) {
+        return ANY.equals(test) || test.equals(name);
+    }
+
+    /**
+     * Selects the elements the path leads to from a context element, in
+     * document order for each context.
+     */
+    List<DDElement> select(DDElement context) {
+        List<DDElement> current = new ArrayList<DDElement>(1);
+        DDElement start = context;
+        if (absolute) {
+            while (start.parent != null) {
+                start = start.parent;
+            }
+        }
+        current.add(start);
+        for (int i = 0; i < steps.length && !current.isEmpty(); i++) {
+            String step = steps[i];
+            List<DDElement> next = new ArrayList<DDElement>();
+            if (SELF.equals(step)) {
+                continue;
+            } else if (PARENT.equals(step)) {
+                Map<DDElement, DDElement> seen =
+                        new IdentityHashMap<DDElement, DDElement>();
+                for (DDElement e : current) {
+                    if (e.parent != null && seen.put(e.parent, e) == null) {
+                        next.add(e.parent);
+                    }
+                }
+            } else {
+                boolean any = ANY.equals(step);
+                for (DDElement e : current) {
+                    for (DDElement child : e.children) {
+                        if (any || step.equals(child.name)) {
+                            next.add(child);
+                        }
+                    }
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the text of the selected elements, or the values of the
+     * selected attribute.
+     *
+     * @return the values, or null if nothing was selected.
+     */
+    String[] text(DDElement context) {
+        return text(select(context));
+    }
+
+    /**
+     * Returns the text of elements selected by the path, or the values of
+     * the selected attribute of them.
+     *
+     * @return the values, or null if there are none.
+     */
+    String[] text(List<DDElement> selected) {
+        List<String> values = new ArrayList<String>(selected.size());
+        for (DDElement e : selected) {
+            if (attribute == null) {
+                values.add(e.text);
+            } else {
+                String value = e.getAttribute(attribute);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+        }
+        return values.isEmpty() ? null
+                : values.toArray(new String[values.size()]);
+    }
+
+    private static String localName(String step) {
+        int colon = step.indexOf(':');
+        return colon < 0 ? step : step.substring(colon + 1);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipException;
+import javax.enterprise.deploy.model.DDBean;
+import javax.enterprise.deploy.model.DDBeanRoot;
+import javax.enterprise.deploy.model.DeployableObject;
+import javax.enterprise.deploy.shared.ModuleType;
+
+/**
+ * A base DeployableObject for a module archive on disk.  The archive is
+ * mapped into memory and indexed once, by a {@link MappedArchive}, so
+ * that {@link #entries()} and {@link #getEntry(String)} never scan or
+ * reopen the file; entries stored without compression are read straight
+ * from the mapping.
+ *
+ * <p> Deployment descriptors are represented by {@link LazyDDBeanRoot}s,
+ * which are parsed only when first navigated.  Subclasses provide class
+ * access.
+ *
+ * <p> {@link #close() Closing} the module closes its archive.  Reading an
+ * entry afterwards fails with an IllegalStateException, and so do
+ * DDBeanRoots and DDBeans of the module once they next need their
+ * document.
+ */
+public abstract class DeployableObjectSupport
+        implements DeployableObject, Closeable {
+
+    private final ModuleType type;
+    private final MappedArchive archive;
+    private final Map<String, LazyDDBeanRoot> roots =
+            new HashMap<String, LazyDDBeanRoot>();
+
+    /**
+     * Maps and indexes a module archive.
+     *
+     * @param archive the archive file.
+     * @param type the module type of the archive.
+     * @throws IOException if the archive could not be read or is not a
+     *                     ZIP archive.
+     */
+    protected DeployableObjectSupport(File archive, ModuleType type)
+            throws IOException {
+        this.type = type;
+        this.archive = new MappedArchive(archive);
+    }
+
+    public ModuleType getType() {
+        return type;
+    }
+
+    /**
+     * Closes the archive and discards the parsed deployment descriptors.
+     */
+    public void close() {
+        archive.close();
+        synchronized (roots) {
+            for (LazyDDBeanRoot root : roots.values()) {
+                root.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the mapped archive, for direct access to its entries.
+     *
+     * @return the mapped archive.
+     */
+    public MappedArchive getArchive() {
+        return archive;
+    }
+
+    public Enumeration<String> entries() {
+        return archive.entries();
+    }
+
+    /**
+     * Returns the InputStream for the given entry name.  Entries that
+     * are encrypted or compressed with a method other than deflate
+     * cannot be read and are reported as not found.
+     *
+     * @param name the file name relative to the root of the module.
+     * @return the InputStream for the given entry name or null if not
+     *         found.
+     */
+    public InputStream getEntry(String name) {
+        try {
+            return archive.getInputStream(name);
+        } catch (ZipException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the root of the deployment descriptor, or null if the
+     * module has no deployment descriptor.
+     */
+    public DDBeanRoot getDDBeanRoot() {
+        String name = getDeploymentDescriptorName();
+        if (name == null) {
+            return null;
+        }
+        try {
+            return getDDBeanRoot(name);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    public DDBeanRoot getDDBeanRoot(String filename)
+            throws FileNotFoundException {
+        synchronized (roots) {
+            LazyDDBeanRoot root = roots.get(filename);
+            if (root == null) {
+                root = new LazyDDBeanRoot(this, filename);
+                roots.put(filename, root);
+            }
+            return root;
+        }
+    }
+
+    public DDBean[] getChildBean(String xpath) {
+        DDBeanRoot root = getDDBeanRoot();
+        return root == null ? null : root.getChildBean(xpath);
+    }
+
+    public String[] getText(String xpath) {
+        DDBeanRoot root = getDDBeanRoot();
+        return root == null ? null : root.getText(xpath);
+    }
+
+    /**
+     * @deprecated As of version 1.1 replaced by
+     * DDBeanRoot.getDDBeanRootVersion()
+     */
+    @Deprecated
+    public String getModuleDTDVersion() {
+        DDBeanRoot root = getDDBeanRoot();
+        return root == null ? null : root.getModuleDTDVersion();
+    }
+
+    /**
+     * Returns the file name of the deployment descriptor relative to the
+     * root of the module.  The default is the standard name for the
+     * module type.
+     *
+     * @return the file name, or null if the module type has no standard
+     *         deployment descriptor.
+     */
+    protected String getDeploymentDescriptorName() {
+        if (ModuleType.EAR.equals(type)) {
+            return "META-INF/application.xml";
+        } else if (ModuleType.WAR.equals(type)) {
+            return "WEB-INF/web.xml";
+        } else if (ModuleType.EJB.equals(type)) {
+            return "META-INF/ejb-jar.xml";
+        } else if (ModuleType.RAR.equals(type)) {
+            return "META-INF/ra.xml";
+        } else if (ModuleType.CAR.equals(type)) {
+            return "META-INF/application-client.xml";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+import javax.enterprise.deploy.model.DDBean;
+import javax.enterprise.deploy.model.DDBeanRoot;
+import javax.enterprise.deploy.model.XpathListener;
+
+/**
+ * A DDBean of a {@link LazyDDBeanRoot}.  It holds only the position of
+ * its element in the document, so the parsed document can be discarded
+ * and read again while the bean is in use.
+ */
+final class LazyDDBean implements DDBean {
+    private final LazyDDBeanRoot root;
+    // The child positions leading from the document node to the element.
+    private final int[] path;
+    private final String xpath;
+
+    LazyDDBean(LazyDDBeanRoot root, int[] path, String xpath) {
+        this.root = root;
+        this.path = path;
+        this.xpath = xpath;
+    }
+
+    public String getXpath() {
+        return xpath;
+    }
+
+    public String getText() {
+        return element().text;
+    }
+
+    public String getId() {
+        return element().getAttribute("id");
+    }
+
+    public DDBeanRoot getRoot() {
+        return root;
+    }
+
+    public DDBean[] getChildBean(String xpath) {
+        return root.getChildBean(element(), this.xpath, xpath);
+    }
+
+    public String[] getText(String xpath) {
+        return root.getText(element(), xpath);
+    }
+
+    public void addXpathListener(String xpath, XpathListener xpl) {
+        root.addXpathListener(LazyDDBeanRoot.join(this.xpath, xpath), xpl);
+    }
+
+    public void removeXpathListener(String xpath, XpathListener xpl) {
+        root.removeXpathListener(LazyDDBeanRoot.join(this.xpath, xpath),
+                xpl);
+    }
+
+    public String[] getAttributeNames() {
+        return element().getAttributeNames();
+    }
+
+    public String getAttributeValue(String attrName) {
+        return element().getAttribute(attrName);
+    }
+
+    public String toString() {
+        return root.getFilename() + ":" + xpath;
+    }
+
+    private DDElement element() {
+        DDElement e = root.document();
+        for (int i = 0; i < path.length; i++) {
+            e = e.children[path[i]];
+        }
+        return e;
+    }
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.enterprise.deploy.model.DDBean;
+import javax.enterprise.deploy.model.DDBeanRoot;
+import javax.enterprise.deploy.model.DeployableObject;
+import javax.enterprise.deploy.model.XpathEvent;
+import javax.enterprise.deploy.model.XpathListener;
+import javax.enterprise.deploy.shared.ModuleType;
+
+/**
+ * A DDBeanRoot that reads its XML instance document from the
+ * DeployableObject only when it is first navigated.
+ *
+ * <p> The parsed document is held through a soft reference, so the
+ * garbage collector may discard it when memory runs low; it is parsed
+ * again from the module if it is needed afterwards.  DDBeans are created
+ * only when {@link #getChildBean(String)} reaches their elements, hold
+ * nothing but the position of their element, and are kept through weak
+ * references so that asking for the same element again returns the same
+ * DDBean while it is in use.
+ *
+ * <p> The document is treated as read-only, so the position of an
+ * element never changes and a DDBean stays valid for as long as it is
+ * referenced.  XPath listeners are kept but are only notified of events
+ * passed to {@link #fireXpathEvent(String, XpathEvent)}.
+ *
+ * <p> A root may be {@link #setIndexed(boolean) indexed}: the elements
+ * of the parsed document are then indexed once by name and by absolute
+ * path, so that {@link #getElementBeans(String)} and XPaths that descend
+ * from the document by name alone are answered without walking the tree.
+ * The index is discarded with the document.
+ *
+ * <p> XPaths are location paths of element names, absolute or relative
+ * to the bean, whose steps may also be <code>.</code>, <code>..</code>
+ * or <code>*</code>; in getText the last step may select an attribute
+ * with <code>@name</code>.  Namespace prefixes are ignored.  The root
+ * stands for the document, so relative paths from the root start with
+ * the name of the document element.  Compiled XPaths are shared through
+ * the {@link XpathCache}.
+ */
+public class LazyDDBeanRoot implements DDBeanRoot {
+
+    private final DeployableObject module;
+    private final String filename;
+    private final Map<String, List<XpathListener>> listeners =
+            new HashMap<String, List<XpathListener>>();
+    private final Map<String, BeanReference> beans =
+            new HashMap<String, BeanReference>();
+    private final ReferenceQueue<LazyDDBean> released =
+            new ReferenceQueue<LazyDDBean>();
+    private SoftReference<DDElement> document =
+            new SoftReference<DDElement>(null);
+    private SoftReference<DDIndex> index = new SoftReference<DDIndex>(null);
+    private boolean indexed;
+    private int parses;
+
+    /**
+     * Creates the root of an XML instance document of a module.  The
+     * document is not read yet.
+     *
+     * @param module the module holding the document.
+     * @param filename the file name of the document relative to the
+     *                 root of the module.
+     * @throws FileNotFoundException if the module has no such file.
+     */
+    public LazyDDBeanRoot(DeployableObject module, String filename)
+            throws FileNotFoundException {
+        InputStream in = module.getEntry(filename);
+        if (in == null) {
+            throw new FileNotFoundException(filename);
+        }
+        close(in);
+        this.module = module;
+        this.filename = filename;
+    }
+
+    public ModuleType getType() {
+        return module.getType();
+    }
+
+    public DeployableObject getDeployableObject() {
+        return module;
+    }
+
+    /**
+     * @deprecated As of version 1.1 replaced by
+     * DDBeanRoot.getDDBeanRootVersion()
+     */
+    @Deprecated
+    public String getModuleDTDVersion() {
+        String version = document().text;
+        return version.length() == 0 ? null : version;
+    }
+
+    public String getDDBeanRootVersion() {
+        DDElement element = documentElement();
+        String version = element == null ? null
+                : element.getAttribute("version");
+        return version != null ? version : getModuleDTDVersion();
+    }
+
+    public String getXpath() {
+        return "/";
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Returns the text of the document element.
+     */
+    public String getText() {
+        DDElement element = documentElement();
+        return element == null ? null : element.text;
+    }
+
+    /**
+     * Returns the id attribute of the document element.
+     */
+    public String getId() {
+        return getAttributeValue("id");
+    }
+
+    public DDBeanRoot getRoot() {
+        return this;
+    }
+
+    public DDBean[] getChildBean(String xpath) {
+        return getChildBean(document(), "/", xpath);
+    }
+
+    /**
+     * Returns the text of the elements or the values of the attribute an
+     * XPath selects.  While the document is not parsed, XPaths that only
+     * descend from the document, possibly stepping back up with
+     * <code>..</code> to test for a child, are evaluated in a single
+     * pass over the file without parsing it into memory, unless the
+     * root is indexed.
+     */
+    public String[] getText(String xpath) {
+        DDXpath path = XpathCache.getInstance().compile(xpath);
+        if (path.isStreamable() && !isIndexed() && !isParsed()) {
+            InputStream in = open();
+            try {
+                return DDParser.text(in, path);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not parse "
+                        + filename, e);
+            } finally {
+                close(in);
+            }
+        }
+        return path.text(select(document(), path));
+    }
+
+    public void addXpathListener(String xpath, XpathListener xpl) {
+        synchronized (listeners) {
+            List<XpathListener> list = listeners.get(xpath);
+            if (list == null) {
+                list = new CopyOnWriteArrayList<XpathListener>();
+                listeners.put(xpath, list);
+            }
+            list.add(xpl);
+        }
+    }
+
+    public void removeXpathListener(String xpath, XpathListener xpl) {
+        synchronized (listeners) {
+            List<XpathListener> list = listeners.get(xpath);
+            if (list != null) {
+                list.remove(xpl);
+                if (list.isEmpty()) {
+                    listeners.remove(xpath);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the attribute names of the document element.
+     */
+    public String[] getAttributeNames() {
+        DDElement element = documentElement();
+        return element == null ? null : element.getAttributeNames();
+    }
+
+    /**
+     * Returns an attribute of the document element.
+     */
+    public String getAttributeValue(String attrName) {
+        DDElement element = documentElement();
+        return element == null ? null : element.getAttribute(attrName);
+    }
+
+    /**
+     * Returns the DDBeans of all elements with a local name, wherever
+     * they are in the document, in document order.
+     *
+     * @param name the local name of the elements.
+     * @return the DDBeans, or null if there are none.
+     */
+    public DDBean[] getElementBeans(String name) {
+        DDIndex idx = index();
+        List<DDElement> elements;
+        if (idx != null) {
+            elements = Arrays.asList(idx.byName(name));
+        } else {
+            elements = new ArrayList<DDElement>();
+            collect(document(), name, elements);
+        }
+        if (elements.isEmpty()) {
+            return null;
+        }
+        DDBean[] result = new DDBean[elements.size()];
+        for (int i = 0; i < result.length; i++) {
+            DDElement element = elements.get(i);
+            result[i] = bean(element, xpath(element));
+        }
+        return result;
+    }
+
+    /**
+     * Sets whether the document is indexed when it is parsed.
+     *
+     * @param indexed true to index the document.
+     */
+    public synchronized void setIndexed(boolean indexed) {
+        this.indexed = indexed;
+        if (!indexed) {
+            index.clear();
+        }
+    }
+
+    /**
+     * Tests whether the document is indexed when it is parsed.
+     *
+     * @return true if the document is indexed.
+     */
+    public synchronized boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Notifies the listeners registered for an XPath of an event.  The
+     * archive cannot change, so the event leaves the parsed document, its
+     * index and the DDBeans as they are.
+     *
+     * @param xpath the XPath the listeners were registered for.
+     * @param event the event.
+     */
+    public void fireXpathEvent(String xpath, XpathEvent event) {
+        List<XpathListener> list;
+        synchronized (listeners) {
+            list = listeners.get(xpath);
+        }
+        if (list != null) {
+            for (XpathListener listener : list) {
+                listener.fireXpathEvent(event);
+            }
+        }
+    }
+
+    /**
+     * Tests whether the parsed document is currently held in memory.
+     *
+     * @return true if the document is parsed and not yet discarded.
+     */
+    public synchronized boolean isParsed() {
+        return document.get() != null;
+    }
+
+    /**
+     * Returns how often the document was parsed.
+     *
+     * @return the number of parses.
+     */
+    public synchronized int getParseCount() {
+        return parses;
+    }
+
+    /**
+     * Discards the parsed document and its index.  They are created again
+     * when needed.
+     */
+    public synchronized void release() {
+        document.clear();
+        index.clear();
+    }
+
+    /**
+     * Returns the document node, parsing the document if needed.
+     *
+     * @throws IllegalStateException if the document can no longer be
+     *         read or is not well-formed.
+     */
+    synchronized DDElement document() {
+        DDElement d = document.get();
+        if (d != null) {
+            return d;
+        }
+        InputStream in = open();
+        try {
+            d = DDParser.parse(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not parse " + filename,
+                    e);
+        } finally {
+            close(in);
+        }
+        document = new SoftReference<DDElement>(d);
+        parses++;
+        return d;
+    }
+
+    /**
+     * Returns the index of the document, building it if needed.
+     *
+     * @return the index, or null if the root is not indexed.
+     */
+    synchronized DDIndex index() {
+        if (!indexed) {
+            return null;
+        }
+        DDIndex idx = index.get();
+        if (idx == null) {
+            idx = new DDIndex(document());
+            index = new SoftReference<DDIndex>(idx);
+        }
+        return idx;
+    }
+
+    private InputStream open() {
+        InputStream in = module.getEntry(filename);
+        if (in == null) {
+            throw new IllegalStateException(filename
+                    + " is no longer in the module");
+        }
+        return in;
+    }
+
+    DDBean[] getChildBean(DDElement context, String contextXpath,
+            String xpath) {
+        DDXpath path = XpathCache.getInstance().compile(xpath);
+        if (path.attribute != null) {
+            return null;
+        }
+        List<DDElement> selected = select(context, path);
+        if (selected.isEmpty()) {
+            return null;
+        }
+        String beanXpath = path.absolute ? xpath : join(contextXpath, xpath);
+        DDBean[] result = new DDBean[selected.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bean(selected.get(i), beanXpath);
+        }
+        return result;
+    }
+
+    String[] getText(DDElement context, String xpath) {
+        DDXpath path = XpathCache.getInstance().compile(xpath);
+        return path.text(select(context, path));
+    }
+
+    /**
+     * Selects the elements a path leads to from a context element, from
+     * the index if the path descends from the document by name alone.
+     */
+    private List<DDElement> select(DDElement context, DDXpath path) {
+        if (path.key != null && (path.absolute || context.parent == null)) {
+            DDIndex idx = index();
+            if (idx != null) {
+                DDElement d = context;
+                while (d.parent != null) {
+                    d = d.parent;
+                }
+                // The context may be from a document since discarded.
+                if (d == idx.document) {
+                    return Arrays.asList(idx.byPath(path.key));
+                }
+            }
+        }
+        return path.select(context);
+    }
+
+    private static void collect(DDElement element, String name,
+            List<DDElement> elements) {
+        for (DDElement child : element.children) {
+            if (name.equals(child.name)) {
+                elements.add(child);
+            }
+            collect(child, name, elements);
+        }
+    }
+
+    // The absolute path of names of an element.
+    private static String xpath(DDElement element) {
+        StringBuilder xpath = new StringBuilder();
+        for (DDElement e = element; e.parent != null; e = e.parent) {
+            xpath.insert(0, e.name).insert(0, '/');
+        }
+        return xpath.toString();
+    }
+
+    static String join(String contextXpath, String xpath) {
+        if (xpath.startsWith("/")) {
+            return xpath;
+        }
+        return contextXpath.endsWith("/") ? contextXpath + xpath
+                : contextXpath + "/" + xpath;
+    }
+
+    private DDElement documentElement() {
+        DDElement d = document();
+        return d.children.length == 0 ? null : d.children[0];
+    }
+
+    /**
+     * Returns the DDBean of an element, creating it if it is not in use.
+     */
+    private DDBean bean(DDElement element, String xpath) {
+        int depth = 0;
+        for (DDElement e = element; e.parent != null; e = e.parent) {
+            depth++;
+        }
+        int[] path = new int[depth];
+        StringBuilder key = new StringBuilder();
+        for (DDElement e = element; e.parent != null; e = e.parent) {
+            path[--depth] = e.index;
+        }
+        for (int i = 0; i < path.length; i++) {
+            key.append(path[i]).append('/');
+        }
+        String k = key.toString();
+        synchronized (beans) {
+            expunge();
+            BeanReference ref = beans.get(k);
+            LazyDDBean bean = ref == null ? null : ref.get();
+            if (bean == null) {
+                bean = new LazyDDBean(this, path, xpath);
+                beans.put(k, new BeanReference(k, bean, released));
+            }
+            return bean;
+        }
+    }
+
+    // Called with the beans map locked.
+    private void expunge() {
+        BeanReference ref;
+        while ((ref = (BeanReference) released.poll()) != null) {
+            if (beans.get(ref.key) == ref) {
+                beans.remove(ref.key);
+            }
+        }
+    }
+
+    private static void close(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            // Nothing more can be done with the stream.
+        }
+    }
+
+    private static final class BeanReference
+            extends WeakReference<LazyDDBean> {
+        final String key;
+
+        BeanReference(String key, LazyDDBean bean,
+                ReferenceQueue<LazyDDBean> queue) {
+            super(bean, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A read-only view of a ZIP archive (JAR, WAR, RAR or EAR) that maps the
+ * file into memory once and indexes its central directory.
+ *
+ * <p> Only the central directory is read when the archive is opened.
+ * Looking up an entry is a hash table lookup; the local header of an
+ * entry is read the first time the entry is opened.  Entries stored
+ * without compression are returned as slices of the mapped file, without
+ * copying; compressed entries are inflated straight from the mapping.
+ * The view is safe for use by several threads.
+ *
+ * <p> Once the archive is {@link #close() closed}, reading an entry fails
+ * with an IllegalStateException; the names and sizes of the entries
+ * remain available.  Buffers and streams obtained before stay readable.
+ * The mapping is released when the garbage collector has reclaimed the
+ * archive and all of them.
+ *
+ * <p> Archives up to 2 GB are supported, including ZIP64 archives with
+ * more than 65535 entries.  Encrypted entries cannot be read.
+ */
+public final class MappedArchive implements Closeable {
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_RECORD = 0x06054b50;
+    private static final int ZIP64_END_RECORD = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final int END_RECORD_SIZE = 22;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final File file;
+    // Null once the archive is closed.
+    private volatile ByteBuffer buffer;
+    private final String[] names;
+    private final Map<String, Entry> index;
+
+    /**
+     * Maps and indexes an archive.
+     *
+     * @param file the archive file.
+     * @throws IOException if the file could not be read, is not a ZIP
+     *                     archive or is larger than 2 GB.
+     */
+    public MappedArchive(File file) throws IOException {
+        this.file = file;
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to map");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        } finally {
+            // The mapping stays valid after the channel is closed.
+            channel.close();
+        }
+        int end = findEndRecord();
+        long count = u16(end + 10);
+        long offset = u32(end + 16);
+        if (count == 0xFFFF || offset == 0xFFFFFFFFL) {
+            int locator = end - 20;
+            if (locator >= 0 && buffer.getInt(locator) == ZIP64_LOCATOR) {
+                int record = checkedOffset(buffer.getLong(locator + 8));
+                if (buffer.getInt(record) != ZIP64_END_RECORD) {
+                    throw new ZipException("Invalid ZIP64 end record in "
+                            + file);
+                }
+                count = buffer.getLong(record + 32);
+                offset = buffer.getLong(record + 48);
+            }
+        }
+        if (count > Integer.MAX_VALUE) {
+            throw new ZipException("Too many entries in " + file);
+        }
+        names = new String[(int) count];
+        index = new HashMap<String, Entry>((int) (count / 0.75f) + 1);
+        int pos = checkedOffset(offset);
+        for (int i = 0; i < names.length; i++) {
+            if (pos + CENTRAL_HEADER_SIZE > buffer.limit()
+                    || buffer.getInt(pos) != CENTRAL_HEADER) {
+                throw new ZipException("Invalid central directory in "
+                        + file);
+            }
+            int flags = u16(pos + 8);
+            int method = u16(pos + 10);
+            long compressed = u32(pos + 20);
+            long uncompressed = u32(pos + 24);
+            int nameLength = u16(pos + 28);
+            int extraLength = u16(pos + 30);
+            int commentLength = u16(pos + 32);
+            long local = u32(pos + 42);
+            String name = new String(bytes(pos + CENTRAL_HEADER_SIZE,
+                    nameLength), UTF8);
+            int extra = pos + CENTRAL_HEADER_SIZE + nameLength;
+            long[] sizes = {uncompressed, compressed, local};
+            readZip64Extra(extra, extraLength, sizes);
+            names[i] = name;
+            index.put(name, new Entry(flags, method, sizes[1], sizes[0],
+                    checkedOffset(sizes[2])));
+            pos = extra + extraLength + commentLength;
+        }
+    }
+
+    /**
+     * Closes the archive.  The mapping is not unmapped explicitly, since
+     * buffers and streams obtained before may still read from it; this
+     * archive merely drops its reference to it.
+     */
+    public void close() {
+        buffer = null;
+    }
+
+    /**
+     * Returns the archive file.
+     *
+     * @return the file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the names of the entries, in central directory order.
+     *
+     * @return an enumeration of the entry names.
+     */
+    public Enumeration<String> entries() {
+        return Collections.enumeration(Arrays.asList(names));
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Tests whether the archive has an entry.
+     *
+     * @param name the entry name.
+     * @return true if the entry exists.
+     */
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * Returns the uncompressed size of an entry.
+     *
+     * @param name the entry name.
+     * @return the size in bytes, or -1 if there is no such entry.
+     */
+    public long getSize(String name) {
+        Entry entry = index.get(name);
+        return entry == null ? -1 : entry.size;
+    }
+
+    /**
+     * Returns the bytes of an entry stored without compression, as a
+     * read-only slice of the mapped file.
+     *
+     * @param name the entry name.
+     * @return the entry bytes, or null if there is no such entry or it is
+     *         compressed.
+     * @throws ZipException if the local header or size of the entry is
+     *                      invalid.
+     * @throws IllegalStateException if the archive is closed.
+     */
+    public ByteBuffer getStoredBuffer(String name) throws ZipException {
+        Entry entry = index.get(name);
+        if (entry == null || entry.method != STORED
+                || (entry.flags & 1) != 0) {
+            return null;
+        }
+        return slice(entry);
+    }
+
+    /**
+     * Returns a stream of the uncompressed bytes of an entry.
+     *
+     * @param name the entry name.
+     * @return the stream, or null if there is no such entry.
+     * @throws ZipException if the entry is encrypted, compressed with
+     *                      an unsupported method, or its local header or
+     *                      size is invalid.
+     * @throws IllegalStateException if the archive is closed.
+     */
+    public InputStream getInputStream(String name) throws ZipException {
+        Entry entry = index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        if ((entry.flags & 1) != 0) {
+            throw new ZipException(name + " is encrypted");
+        }
+        if (entry.method == STORED) {
+            return new BufferInputStream(slice(entry));
+        }
+        if (entry.method == DEFLATED) {
+            return new InflatingInputStream(slice(entry), entry.size);
+        }
+        throw new ZipException(name + " uses unsupported method "
+                + entry.method);
+    }
+
+    private ByteBuffer slice(Entry entry) throws ZipException {
+        ByteBuffer mapped = buffer;
+        if (mapped == null) {
+            throw new IllegalStateException(file + " is closed");
+        }
+        int offset = entry.offset;
+        if (offset < 0) {
+            offset = dataOffset(mapped, entry.local);
+            entry.offset = offset;
+        }
+        long end = offset + entry.compressedSize;
+        if (entry.compressedSize < 0 || end > mapped.limit()) {
+            throw new ZipException("Invalid entry size "
+                    + entry.compressedSize + " in " + file);
+        }
+        ByteBuffer b = mapped.duplicate();
+        b.limit((int) end);
+        b.position(offset);
+        return b.slice().asReadOnlyBuffer();
+    }
+
+    private int findEndRecord() throws ZipException {
+        int last = buffer.limit() - END_RECORD_SIZE;
+        int first = Math.max(0, last - 0xFFFF);
+        for (int pos = last; pos >= first; pos--) {
+            if (buffer.getInt(pos) == END_RECORD
+                    && pos + END_RECORD_SIZE + u16(pos + 20)
+                    == buffer.limit()) {
+                return pos;
+            }
+        }
+        throw new ZipException(file + " is not a ZIP archive");
+    }
+
+    /**
+     * Replaces the sizes and offset that do not fit 32 bits by their
+     * values from the ZIP64 extra field.
+     */
+    private void readZip64Extra(int pos, int length, long[] values) {
+        int end = pos + length;
+        while (pos + 4 <= end) {
+            int id = u16(pos);
+            int size = u16(pos + 2);
+            if (id == 1) {
+                int field = pos + 4;
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] == 0xFFFFFFFFL
+                            && field + 8 <= pos + 4 + size) {
+                        values[i] = buffer.getLong(field);
+                        field += 8;
+                    }
+                }
+                return;
+            }
+            pos += 4 + size;
+        }
+    }
+
+    private int dataOffset(ByteBuffer mapped, int local)
+            throws ZipException {
+        if ((long) local + LOCAL_HEADER_SIZE > mapped.limit()
+                || mapped.getInt(local) != LOCAL_HEADER) {
+            throw new ZipException("Invalid local header in " + file);
+        }
+        return local + LOCAL_HEADER_SIZE + (mapped.getShort(local + 26)
+                & 0xFFFF) + (mapped.getShort(local + 28) & 0xFFFF);
+    }
+
+    private int checkedOffset(long offset) throws ZipException {
+        if (offset < 0 || offset >= buffer.limit()) {
+            throw new ZipException("Invalid offset " + offset + " in "
+                    + file);
+        }
+        return (int) offset;
+    }
+
+    private byte[] bytes(int pos, int length) {
+        byte[] b = new byte[length];
+        ByteBuffer d = buffer.duplicate();
+        d.position(pos);
+        d.get(b);
+        return b;
+    }
+
+    private int u16(int pos) {
+        return buffer.getShort(pos) & 0xFFFF;
+    }
+
+    private long u32(int pos) {
+        return buffer.getInt(pos) & 0xFFFFFFFFL;
+    }
+
+    private static final class Entry {
+        final int flags;
+        final int method;
+        final long compressedSize;
+        final long size;
+        // The offset of the local header, and of the data once resolved.
+        final int local;
+        volatile int offset = -1;
+
+        Entry(int flags, int method, long compressedSize, long size,
+                int local) {
+            this.flags = flags;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.local = local;
+        }
+    }
+
+    /**
+     * Reads a buffer without copying it.
+     */
+    private static class BufferInputStream extends InputStream {
+        final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        public long skip(long n) {
+            int k = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + k);
+            return k;
+        }
+
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * Inflates a buffer holding raw deflate data.
+     */
+    private static final class InflatingInputStream extends InputStream {
+        private static final byte[] PAD = new byte[1];
+        private final ByteBuffer input;
+        private final byte[] chunk = new byte[8192];
+        private final byte[] single = new byte[1];
+        private long remaining;
+        private boolean padded;
+        private Inflater inflater = new Inflater(true);
+
+        InflatingInputStream(ByteBuffer input, long size) {
+            this.input = input;
+            this.remaining = size;
+        }
+
+        public int read() throws IOException {
+            return read(single, 0, 1) == 1 ? single[0] & 0xFF : -1;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (inflater == null) {
+                throw new IOException("Stream closed");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            try {
+                while (true) {
+                    int n = inflater.inflate(b, off, len);
+                    if (n > 0) {
+                        remaining -= n;
+                        return n;
+                    }
+                    if (inflater.finished() || inflater.needsDictionary()) {
+                        return -1;
+                    }
+                    if (!input.hasRemaining()) {
+                        if (padded) {
+                            throw new ZipException("Truncated entry");
+                        }
+                        // Raw deflate data may need one more byte.
+                        padded = true;
+                        inflater.setInput(PAD, 0, 1);
+                        continue;
+                    }
+                    int k = Math.min(chunk.length, input.remaining());
+                    input.get(chunk, 0, k);
+                    inflater.setInput(chunk, 0, k);
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            }
+        }
+
+        public int available() {
+            return inflater == null ? 0
+                    : (int) Math.min(Integer.MAX_VALUE,
+                            Math.max(0, remaining));
+        }
+
+        public void close() {
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+        }
+    }
+}
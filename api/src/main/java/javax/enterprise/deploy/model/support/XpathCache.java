@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.model.support;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The cache of compiled XPaths shared by all {@link LazyDDBeanRoot}s and
+ * their DDBeans.  DConfigBeans navigate every DDBean they are given with
+ * the same few XPaths, so each distinct XPath string is parsed once and
+ * its compiled steps are reused.
+ *
+ * <p> Lookups do not lock.  When the cache grows past its maximum size,
+ * arbitrary XPaths other than the one just compiled are evicted, so the
+ * size is bounded only approximately while compilations race.
+ */
+public final class XpathCache {
+
+    /**
+     * The default maximum number of compiled XPaths held.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final XpathCache INSTANCE = new XpathCache();
+
+    private final ConcurrentHashMap<String, DDXpath> paths =
+            new ConcurrentHashMap<String, DDXpath>(64);
+    private volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private XpathCache() {
+    }
+
+    /**
+     * Returns the shared cache.
+     *
+     * @return the cache.
+     */
+    public static XpathCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the compiled form of an XPath, compiling it if it is not
+     * cached.
+     *
+     * @throws IllegalArgumentException if the XPath is not supported.
+     */
+    DDXpath compile(String xpath) {
+        DDXpath path = paths.get(xpath);
+        if (path != null) {
+            hits.increment();
+            return path;
+        }
+        misses.increment();
+        // A concurrent duplicate compilation is harmless.
+        path = DDXpath.compile(xpath);
+        int max = maximumSize;
+        if (max > 0) {
+            paths.put(xpath, path);
+            if (paths.size() > max) {
+                trim(max, xpath);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Sets the maximum number of compiled XPaths held, evicting some if
+     * there are more.
+     *
+     * @param maximumSize the maximum size.
+     * @throws IllegalArgumentException if maximumSize is negative.
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException(
+                    "maximumSize < 0: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        trim(maximumSize, null);
+    }
+
+    /**
+     * Returns the maximum number of compiled XPaths held.
+     *
+     * @return the maximum size.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of compiled XPaths held.
+     *
+     * @return the size of the cache.
+     */
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * Returns the number of XPaths found compiled in the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of XPaths that had to be compiled.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of compiled XPaths evicted to keep the cache
+     * within its maximum size.
+     *
+     * @return the number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Discards all compiled XPaths and resets the statistics.
+     */
+    public void clear() {
+        paths.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Evicts XPaths other than the one given until at most max remain.
+     */
+    private void trim(int max, String keep) {
+        for (Iterator<String> it = paths.keySet().iterator();
+                paths.size() > max && it.hasNext();) {
+            if (!it.next().equals(keep)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -23,8 +23,19 @@
 package javax.enterprise.deploy.shared.factories;
 
 
-import java.util.Vector;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.enterprise.deploy.spi.DeploymentManager;
 import javax.enterprise.deploy.spi.exceptions.DeploymentManagerCreationException;
 import javax.enterprise.deploy.spi.factories.DeploymentFactory;
@@ -52,17 +63,61 @@ import javax.enterprise.deploy.spi.factories.DeploymentFactory;
  * to retrieve a disconnected DeploymentManager is
  * getDisconnectedDeploymentManager.  A disconnected DeploymentManager
  * does not need user authentication information.
+ *
+ * The registered DeploymentFactories are held in an immutable
+ * snapshot that is replaced on every registration change.
+ * Lookups read the current snapshot without locking or copying.
+ * A URI that starts with a prefix declared by a
+ * {@link javax.enterprise.deploy.spi.factories.PrefixedDeploymentFactory}
+ * is dispatched to that factory directly; any other URI is offered to
+ * the DeploymentFactories in the order they were registered.  The
+ * factory that accepted such a URI is remembered in a bounded cache,
+ * which is invalidated whenever a DeploymentFactory is registered or
+ * unregistered.
+ *
+ * DeploymentFactory providers packaged with a
+ * <code>META-INF/services/javax.enterprise.deploy.spi.factories.DeploymentFactory</code>
+ * declaration can be registered with discoverDeploymentFactories.
+ * A discovered provider is only loaded and instantiated the first time
+ * it is needed to handle a URI.
+ *
+ * When parallel probing is enabled with setParallelProbing, the
+ * handlesURI calls of the registered DeploymentFactories run
+ * concurrently on the supplied executor.  The first DeploymentFactory
+ * in registration order that handles the URI is still the one selected.
+ *
+ * DeploymentManagers can also be requested without blocking the caller
+ * through getDeploymentManagerAsync and
+ * getDisconnectedDeploymentManagerAsync.  The factory is consulted on
+ * an executor, by default one that runs each request on its own virtual
+ * thread when the platform supports them.
  */
 public final class DeploymentFactoryManager {
 
-    private Vector deploymentFactories = null;
+    // Default number of URIs remembered by the resolved factory cache.
+    private static final int DEFAULT_RESOLVED_FACTORY_CACHE_SIZE = 64;
+
+    // Copy-on-write snapshot of the registered factories.
+    private final AtomicReference<DeploymentFactoryRegistry> registry;
+
+    // URI -> factory that accepted it, for the current snapshot.
+    private final ResolvedFactoryCache resolvedFactories;
+
+    // Parallel handlesURI probing settings, or null for sequential probing.
+    private volatile ParallelProbing parallelProbing;
+
+    // Executor for the asynchronous methods, or null for the default.
+    private volatile Executor asyncExecutor;
 
     // Singleton instance
     private static DeploymentFactoryManager deploymentFactoryManager = new DeploymentFactoryManager();
 
     /** Creates new RIDeploymentFactoryManager */
     private DeploymentFactoryManager() {
-        deploymentFactories = new Vector();
+        registry = new AtomicReference<DeploymentFactoryRegistry>(
+                DeploymentFactoryRegistry.EMPTY);
+        resolvedFactories = new ResolvedFactoryCache(
+                DEFAULT_RESOLVED_FACTORY_CACHE_SIZE);
     }
     /**
      * Retrieve the Singleton DeploymentFactoryManager
@@ -80,15 +135,7 @@ public final class DeploymentFactoryManager {
      * 		if there are none.
      */
     public DeploymentFactory[] getDeploymentFactories() {
-        Vector deploymentFactoriesSnapShot = null;
-        synchronized(this){
-            deploymentFactoriesSnapShot =
-				(Vector)this.deploymentFactories.clone();
-        }
-        DeploymentFactory[] factoriesArray =
-			new DeploymentFactory[deploymentFactoriesSnapShot.size()];
-        deploymentFactoriesSnapShot.copyInto(factoriesArray);
-        return factoriesArray;
+        return this.registry.get().getFactories().clone();
     }
 
     /**
@@ -113,23 +160,71 @@ public final class DeploymentFactoryManager {
     public DeploymentManager getDeploymentManager(String uri, String username,
 		 String password) throws DeploymentManagerCreationException{
         try{
-            DeploymentFactory[] factories = this.getDeploymentFactories();
-            for(int factoryIndex=0; factoryIndex < factories.length;
-				factoryIndex++){
-                if(factories[factoryIndex].handlesURI(uri)){
-                    return factories[factoryIndex].getDeploymentManager(uri,
-							username,password);
-                }
+            DeploymentFactory factory = findFactory(uri);
+            if(factory != null){
+                return factory.getDeploymentManager(uri, username, password);
             }
             // No available factory supports the provided url.
             throw new DeploymentManagerCreationException("URL ["+uri+
 				"] not supported by any available factories");
+        }catch(DeploymentManagerCreationException e){
+            throw e;
         }catch(Throwable t){
-            throw new DeploymentManagerCreationException(
-				"Could not get DeploymentManager");
+            throw creationFailure(t);
         }
     }
 
+    /**
+     * Retrieves a DeploymentManager instance to use for deployment
+     * without blocking the caller.  The lookup and connection described
+     * for {@link #getDeploymentManager(String, String, String)} run on
+     * the executor set with setAsyncExecutor.
+     *
+     * @param uri The uri to check
+     * @param username An optional username (may be null if
+     *        no authentication is required for this platform).
+     * @param password An optional password (may be null if
+     *        no authentication is required for this platform).
+     * @return A future completed with a ready DeploymentManager instance,
+     *         or completed exceptionally with the
+     *         DeploymentManagerCreationException, whose cause is the
+     *         original failure, if none could be created.
+     */
+    public CompletableFuture<DeploymentManager> getDeploymentManagerAsync(
+            String uri, String username, String password) {
+        return getDeploymentManagerAsync(uri, username, password,
+                getAsyncExecutor());
+    }
+
+    /**
+     * Retrieves a DeploymentManager instance to use for deployment
+     * without blocking the caller, using the given executor.
+     *
+     * @param uri The uri to check
+     * @param username An optional username (may be null if
+     *        no authentication is required for this platform).
+     * @param password An optional password (may be null if
+     *        no authentication is required for this platform).
+     * @param executor the executor that performs the lookup and
+     *        connection.
+     * @return A future completed with a ready DeploymentManager instance.
+     * @see #getDeploymentManagerAsync(String, String, String)
+     */
+    public CompletableFuture<DeploymentManager> getDeploymentManagerAsync(
+            final String uri, final String username, final String password,
+            Executor executor) {
+        final CompletableFuture<DeploymentManager> result =
+                new CompletableFuture<DeploymentManager>();
+        executor.execute(() -> {
+            try {
+                result.complete(getDeploymentManager(uri, username, password));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
     /**
      * Registers a DeploymentFactory so it will be able to handle
      * requests.
@@ -137,7 +232,82 @@ public final class DeploymentFactoryManager {
      * @param factory the deployment factory
      */
     public void registerDeploymentFactory(DeploymentFactory factory){
-        this.deploymentFactories.add(factory);
+        DeploymentFactoryRegistry current;
+        do {
+            current = this.registry.get();
+        } while (!this.registry.compareAndSet(current,
+                current.register(factory)));
+        this.resolvedFactories.clear();
+    }
+
+    /**
+     * Removes a previously registered DeploymentFactory so it will no
+     * longer handle requests.  If the factory was registered more than
+     * once only its first registration is removed.
+     *
+     * @param factory the deployment factory
+     * @return true if the factory was registered and has been removed.
+     */
+    public boolean unregisterDeploymentFactory(DeploymentFactory factory){
+        DeploymentFactoryRegistry current;
+        DeploymentFactoryRegistry updated;
+        do {
+            current = this.registry.get();
+            updated = current.unregister(factory);
+            if (updated == current) {
+                return false;
+            }
+        } while (!this.registry.compareAndSet(current, updated));
+        this.resolvedFactories.clear();
+        return true;
+    }
+
+    /**
+     * Registers the DeploymentFactory providers declared in
+     * <code>META-INF/services/javax.enterprise.deploy.spi.factories.DeploymentFactory</code>
+     * resources visible to the class loader, in resource order.  No
+     * provider class is loaded by this method; each provider is
+     * registered as a placeholder that loads and instantiates it the
+     * first time it is needed.
+     *
+     * <p> A provider's URI prefixes may be declared in a
+     * <code>META-INF/deployment-factory-prefixes.properties</code>
+     * resource that maps the provider class name to a comma separated
+     * list of prefixes.  URIs starting with a declared prefix are
+     * dispatched to the provider without loading any other provider.
+     * A provider without declared prefixes is loaded when a URI that no
+     * declared prefix matches is looked up.
+     *
+     * <p> Providers already discovered through the same class loader
+     * are not registered again.
+     *
+     * @param loader the class loader used to find and load providers.
+     * @return the number of providers registered by this call.
+     * @throws IOException if a provider declaration could not be read.
+     */
+    public int discoverDeploymentFactories(ClassLoader loader)
+            throws IOException {
+        List<LazyDeploymentFactory> discovered =
+                LazyDeploymentFactory.discover(loader);
+        DeploymentFactoryRegistry current;
+        List<LazyDeploymentFactory> added;
+        do {
+            current = this.registry.get();
+            added = new ArrayList<LazyDeploymentFactory>();
+            for (Iterator<LazyDeploymentFactory> it = discovered.iterator();
+                    it.hasNext();) {
+                LazyDeploymentFactory factory = it.next();
+                if (!isDiscovered(current, factory)) {
+                    added.add(factory);
+                }
+            }
+            if (added.isEmpty()) {
+                return 0;
+            }
+        } while (!this.registry.compareAndSet(current,
+                current.registerAll(added)));
+        this.resolvedFactories.clear();
+        return added.size();
     }
 
     /**
@@ -152,19 +322,263 @@ public final class DeploymentFactoryManager {
     public DeploymentManager getDisconnectedDeploymentManager(String uri)
                throws DeploymentManagerCreationException {
         try{
-            DeploymentFactory[] factories = this.getDeploymentFactories();
-            for(int factoryIndex=0; factoryIndex < factories.length;
-				factoryIndex++){
-                if(factories[factoryIndex].handlesURI(uri)){
-                    return factories[factoryIndex].getDisconnectedDeploymentManager(uri);
-                }
+            DeploymentFactory factory = findFactory(uri);
+            if(factory != null){
+                return factory.getDisconnectedDeploymentManager(uri);
             }
             // No available factory supports the provided url.
             throw new DeploymentManagerCreationException("URL ["+uri+
 				"] not supported by any available factories");
+        }catch(DeploymentManagerCreationException e){
+            throw e;
         }catch(Throwable t){
-            throw new DeploymentManagerCreationException(
-				"Could not get DeploymentManager");
+            throw creationFailure(t);
+        }
+    }
+
+    /**
+     * Return a disconnected DeploymentManager instance without blocking
+     * the caller.  The lookup runs on the executor set with
+     * setAsyncExecutor.
+     *
+     * @param uri identifier of the disconnected DeploymentManager to
+     *             return.
+     * @return A future completed with a DeploymentManager instance, or
+     *         completed exceptionally with the
+     *         DeploymentManagerCreationException, whose cause is the
+     *         original failure, if none could be created.
+     */
+    public CompletableFuture<DeploymentManager>
+            getDisconnectedDeploymentManagerAsync(String uri) {
+        return getDisconnectedDeploymentManagerAsync(uri, getAsyncExecutor());
+    }
+
+    /**
+     * Return a disconnected DeploymentManager instance without blocking
+     * the caller, using the given executor.
+     *
+     * @param uri identifier of the disconnected DeploymentManager to
+     *             return.
+     * @param executor the executor that performs the lookup.
+     * @return A future completed with a DeploymentManager instance.
+     * @see #getDisconnectedDeploymentManagerAsync(String)
+     */
+    public CompletableFuture<DeploymentManager>
+            getDisconnectedDeploymentManagerAsync(final String uri,
+            Executor executor) {
+        final CompletableFuture<DeploymentManager> result =
+                new CompletableFuture<DeploymentManager>();
+        executor.execute(() -> {
+            try {
+                result.complete(getDisconnectedDeploymentManager(uri));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sets the executor used by getDeploymentManagerAsync and
+     * getDisconnectedDeploymentManagerAsync.  By default each request
+     * runs on a new virtual thread where the platform supports virtual
+     * threads, and on a pool of daemon threads otherwise.
+     *
+     * @param executor the executor, or null to restore the default.
+     */
+    public void setAsyncExecutor(Executor executor) {
+        this.asyncExecutor = executor;
+    }
+
+    /**
+     * Returns the executor used by the asynchronous methods.
+     *
+     * @return the configured executor or the default executor.
+     */
+    public Executor getAsyncExecutor() {
+        Executor executor = this.asyncExecutor;
+        return executor != null ? executor : DefaultAsyncExecutor.INSTANCE;
+    }
+
+    /**
+     * Enables or disables parallel probing of the registered
+     * DeploymentFactories.  When enabled, the handlesURI calls made to
+     * find the DeploymentFactory for a URI run concurrently on the
+     * executor, and the DeploymentFactory registered first among those
+     * that handle the URI is selected.  A lookup that is not decided
+     * within the timeout fails with a DeploymentManagerCreationException.
+     * URIs that match a declared prefix or the resolved factory cache do
+     * not probe at all.
+     *
+     * <p> The executor should be bounded; probes it rejects run on the
+     * calling thread if the timeout has not expired when their turn
+     * comes, and the timeout cannot interrupt them.  A lookup with a
+     * single registered factory probes it on the executor as well, so
+     * that it is bound by the timeout.  The executor is not shut down by
+     * the DeploymentFactoryManager.
+     *
+     * @param executor the executor for the probes, or null to probe
+     *        sequentially on the calling thread.
+     * @param timeout the time allowed for one lookup.
+     * @param unit the unit of the timeout.
+     */
+    public void setParallelProbing(ExecutorService executor, long timeout,
+            TimeUnit unit) {
+        if (executor == null) {
+            this.parallelProbing = null;
+            return;
+        }
+        if (timeout <= 0) {
+            throw new IllegalArgumentException(
+                    "timeout must be positive: " + timeout);
+        }
+        this.parallelProbing =
+                new ParallelProbing(executor, unit.toNanos(timeout));
+    }
+
+    /**
+     * Sets the maximum number of URIs whose accepting DeploymentFactory
+     * is remembered.  A value of 0 disables the cache.
+     *
+     * @param maxEntries the maximum number of cached URIs.
+     * @throws IllegalArgumentException if maxEntries is negative.
+     */
+    public void setResolvedFactoryCacheSize(int maxEntries) {
+        this.resolvedFactories.setMaxEntries(maxEntries);
+    }
+
+    /**
+     * Returns the maximum number of URIs whose accepting
+     * DeploymentFactory is remembered.
+     *
+     * @return the maximum number of cached URIs.
+     */
+    public int getResolvedFactoryCacheSize() {
+        return this.resolvedFactories.getMaxEntries();
+    }
+
+    /**
+     * Returns the number of URI lookups answered from the resolved
+     * factory cache since this DeploymentFactoryManager was created.
+     * URIs matching a declared prefix do not consult the cache and are
+     * not counted.
+     *
+     * @return the cache hit count.
+     */
+    public long getResolvedFactoryCacheHits() {
+        return this.resolvedFactories.getHitCount();
+    }
+
+    /**
+     * Returns the number of URI lookups that were not answered from the
+     * resolved factory cache since this DeploymentFactoryManager was
+     * created, not counting URIs that matched a declared prefix.
+     *
+     * @return the cache miss count.
+     */
+    public long getResolvedFactoryCacheMisses() {
+        return this.resolvedFactories.getMissCount();
+    }
+
+    private static boolean isDiscovered(DeploymentFactoryRegistry registry,
+            LazyDeploymentFactory factory) {
+        DeploymentFactory[] factories = registry.getFactories();
+        for (int i = 0; i < factories.length; i++) {
+            if (factories[i] instanceof LazyDeploymentFactory) {
+                LazyDeploymentFactory other =
+                        (LazyDeploymentFactory) factories[i];
+                if (other.getClassLoader() == factory.getClassLoader()
+                        && other.getClassName().equals(
+                                factory.getClassName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the registered factory that handles the URI, consulting the
+     * declared prefixes first and then the resolved factory cache.
+     *
+     * @return the factory or null if no registered factory handles the URI.
+     */
+    private DeploymentFactory findFactory(String uri)
+            throws DeploymentManagerCreationException {
+        DeploymentFactoryRegistry current = this.registry.get();
+        DeploymentFactory factory = current.findIndexedFactory(uri);
+        if (factory != null) {
+            return factory;
+        }
+        factory = this.resolvedFactories.get(uri, current);
+        if (factory == null) {
+            ParallelProbing probing = this.parallelProbing;
+            if (probing == null) {
+                factory = current.findFactory(uri);
+            } else {
+                try {
+                    factory = current.findFactory(uri, probing.executor,
+                            probing.timeout);
+                } catch (TimeoutException e) {
+                    throw new DeploymentManagerCreationException(
+                            "Timed out probing factories for URL [" + uri
+                            + "]");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DeploymentManagerCreationException(
+                            "Interrupted probing factories for URL [" + uri
+                            + "]");
+                }
+            }
+            if (factory != null && uri != null) {
+                this.resolvedFactories.put(uri, current, factory);
+            }
+        }
+        return factory;
+    }
+
+    private static final class ParallelProbing {
+        final ExecutorService executor;
+        final long timeout;
+
+        ParallelProbing(ExecutorService executor, long timeout) {
+            this.executor = executor;
+            this.timeout = timeout;
+        }
+    }
+
+    private static DeploymentManagerCreationException creationFailure(
+            Throwable cause) {
+        DeploymentManagerCreationException e =
+                new DeploymentManagerCreationException(
+                        "Could not get DeploymentManager: " + cause);
+        e.initCause(cause);
+        return e;
+    }
+
+    /**
+     * Holder for the default asynchronous executor, created on first use.
+     */
+    private static final class DefaultAsyncExecutor {
+
+        static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                // Virtual threads are only available on newer platforms.
+                Method m = Executors.class.getMethod(
+                        "newVirtualThreadPerTaskExecutor");
+                return (Executor) m.invoke(null);
+            } catch (Exception e) {
+                return Executors.newCachedThreadPool(new ThreadFactory() {
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r,
+                                "DeploymentFactoryManager-async");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+            }
         }
     }
 }
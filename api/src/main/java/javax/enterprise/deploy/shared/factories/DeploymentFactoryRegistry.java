@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.shared.factories;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.enterprise.deploy.spi.factories.DeploymentFactory;
+import javax.enterprise.deploy.spi.factories.PrefixedDeploymentFactory;
+
+/**
+ * An immutable snapshot of the DeploymentFactories registered with the
+ * DeploymentFactoryManager.  A snapshot holds the factories in
+ * registration order together with an index of the URI prefixes
+ * declared by PrefixedDeploymentFactory implementations.  Registration
+ * changes produce a new snapshot; published snapshots are never modified.
+ */
+final class DeploymentFactoryRegistry {
+
+    static final DeploymentFactoryRegistry EMPTY =
+            new DeploymentFactoryRegistry(new DeploymentFactory[0]);
+
+    private final DeploymentFactory[] factories;
+
+    // Declared URI prefix -> first registered factory declaring it.
+    private final Map<String, DeploymentFactory> prefixIndex;
+
+    // Distinct declared prefix lengths, longest first, so that the
+    // most specific declared prefix wins.
+    private final int[] prefixLengths;
+
+    private DeploymentFactoryRegistry(DeploymentFactory[] factories) {
+        this.factories = factories;
+        Map<String, DeploymentFactory> index =
+                new HashMap<String, DeploymentFactory>();
+        TreeSet<Integer> lengths =
+                new TreeSet<Integer>(Collections.reverseOrder());
+        for (int i = 0; i < factories.length; i++) {
+            String[] prefixes = declaredPrefixes(factories[i]);
+            for (int j = 0; j < prefixes.length; j++) {
+                String prefix = prefixes[j];
+                if (prefix == null || prefix.length() == 0
+                        || index.containsKey(prefix)) {
+                    continue;
+                }
+                index.put(prefix, factories[i]);
+                lengths.add(Integer.valueOf(prefix.length()));
+            }
+        }
+        this.prefixIndex = index;
+        this.prefixLengths = new int[lengths.size()];
+        int i = 0;
+        for (Iterator<Integer> it = lengths.iterator(); it.hasNext();) {
+            this.prefixLengths[i++] = it.next().intValue();
+        }
+    }
+
+    /**
+     * Returns the registered factories in registration order.  The
+     * returned array is shared and must not be modified.
+     */
+    DeploymentFactory[] getFactories() {
+        return factories;
+    }
+
+    /**
+     * Returns a snapshot with the factory appended.
+     */
+    DeploymentFactoryRegistry register(DeploymentFactory factory) {
+        DeploymentFactory[] updated =
+                new DeploymentFactory[factories.length + 1];
+        System.arraycopy(factories, 0, updated, 0, factories.length);
+        updated[factories.length] = factory;
+        return new DeploymentFactoryRegistry(updated);
+    }
+
+    /**
+     * Returns a snapshot with the factories appended in order.
+     */
+    DeploymentFactoryRegistry registerAll(
+            List<? extends DeploymentFactory> added) {
+        DeploymentFactory[] updated =
+                new DeploymentFactory[factories.length + added.size()];
+        System.arraycopy(factories, 0, updated, 0, factories.length);
+        int i = factories.length;
+        for (DeploymentFactory factory : added) {
+            updated[i++] = factory;
+        }
+        return new DeploymentFactoryRegistry(updated);
+    }
+
+    /**
+     * Returns a snapshot without the first registration of the factory,
+     * or this snapshot if the factory is not registered.
+     */
+    DeploymentFactoryRegistry unregister(DeploymentFactory factory) {
+        int index = indexOf(factory);
+        if (index < 0) {
+            return this;
+        }
+        DeploymentFactory[] updated =
+                new DeploymentFactory[factories.length - 1];
+        System.arraycopy(factories, 0, updated, 0, index);
+        System.arraycopy(factories, index + 1, updated, index,
+                factories.length - index - 1);
+        return new DeploymentFactoryRegistry(updated);
+    }
+
+    /**
+     * Finds the factory for the URI.  The longest declared prefix that
+     * matches the URI selects its factory directly; otherwise the first
+     * factory in registration order whose handlesURI accepts the URI is
+     * returned.
+     *
+     * @return the factory or null if no factory handles the URI.
+     */
+    DeploymentFactory findFactory(String uri) {
+        DeploymentFactory factory = findIndexedFactory(uri);
+        if (factory != null) {
+            return factory;
+        }
+        for (int i = 0; i < factories.length; i++) {
+            if (factories[i].handlesURI(uri)) {
+                return factories[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the factory for the URI like {@link #findFactory(String)},
+     * but calls handlesURI on the registered factories concurrently.
+     * The first factory in registration order that accepts the URI is
+     * returned, so the result is the same as for a sequential scan.
+     * Probes rejected by the executor run on the calling thread when
+     * their turn comes, unless the timeout has already expired; the
+     * timeout cannot interrupt such a probe once it runs.
+     *
+     * @param executor the executor running the probes.
+     * @param timeout the time allowed for all probes, in nanoseconds.
+     * @return the factory or null if no factory handles the URI.
+     * @throws TimeoutException if the probes did not decide the lookup
+     *         within the timeout.
+     * @throws InterruptedException if the calling thread was interrupted.
+     */
+    DeploymentFactory findFactory(final String uri, ExecutorService executor,
+            long timeout) throws TimeoutException, InterruptedException {
+        DeploymentFactory factory = findIndexedFactory(uri);
+        if (factory != null || factories.length == 0) {
+            return factory;
+        }
+        long deadline = System.nanoTime() + timeout;
+        List<Future<Boolean>> probes =
+                new ArrayList<Future<Boolean>>(factories.length);
+        try {
+            for (int i = 0; i < factories.length; i++) {
+                final DeploymentFactory candidate = factories[i];
+                Future<Boolean> probe = null;
+                try {
+                    probe = executor.submit(new Callable<Boolean>() {
+                        public Boolean call() {
+                            return Boolean.valueOf(candidate.handlesURI(uri));
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Probed on the calling thread when its turn comes.
+                }
+                probes.add(probe);
+            }
+            for (int i = 0; i < factories.length; i++) {
+                Future<Boolean> probe = probes.get(i);
+                boolean handles;
+                try {
+                    if (probe != null) {
+                        handles = probe.get(deadline - System.nanoTime(),
+                                TimeUnit.NANOSECONDS).booleanValue();
+                    } else if (deadline - System.nanoTime() > 0) {
+                        handles = factories[i].handlesURI(uri);
+                    } else {
+                        throw new TimeoutException();
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw (RuntimeException) cause;
+                }
+                if (handles) {
+                    return factories[i];
+                }
+            }
+            return null;
+        } finally {
+            for (int i = 0; i < probes.size(); i++) {
+                if (probes.get(i) != null) {
+                    probes.get(i).cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the factory for the URI using only the declared prefixes.
+     *
+     * @return the factory or null if no declared prefix matches.
+     */
+    DeploymentFactory findIndexedFactory(String uri) {
+        if (uri == null) {
+            return null;
+        }
+        for (int i = 0; i < prefixLengths.length; i++) {
+            int length = prefixLengths[i];
+            if (length <= uri.length()) {
+                DeploymentFactory factory =
+                        prefixIndex.get(uri.substring(0, length));
+                if (factory != null) {
+                    return factory;
+                }
+            }
+        }
+        return null;
+    }
+
+    private int indexOf(DeploymentFactory factory) {
+        for (int i = 0; i < factories.length; i++) {
+            if (factory == null ? factories[i] == null
+                    : factory.equals(factories[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String[] declaredPrefixes(DeploymentFactory factory) {
+        if (factory instanceof PrefixedDeploymentFactory) {
+            try {
+                String[] prefixes =
+                        ((PrefixedDeploymentFactory) factory).getURIPrefixes();
+                if (prefixes != null) {
+                    return prefixes;
+                }
+            } catch (RuntimeException e) {
+                // A factory that cannot report its prefixes is only
+                // reachable through handlesURI.
+            }
+        }
+        return new String[0];
+    }
+}
@@ -0,0 +1,648 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.shared.factories;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.enterprise.deploy.shared.DConfigBeanVersionType;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.exceptions.DeploymentManagerCreationException;
+
+/**
+ * The DeploymentManagerPool keeps connected DeploymentManager instances
+ * obtained from a DeploymentFactoryManager so that they can be reused
+ * instead of paying the product's connection and authentication cost
+ * for every use.
+ *
+ * <p> Pooled DeploymentManagers are keyed by URI, user name and password;
+ * a DeploymentManager is only ever handed out again to a caller that
+ * presents the same credentials.  The DeploymentManager returned by
+ * {@link #getDeploymentManager(String, String, String)} is a proxy that
+ * implements every public interface of the product's DeploymentManager.
+ * Calling <code>release</code> on it returns the underlying
+ * DeploymentManager to the pool; the proxy rejects further calls with an
+ * IllegalStateException.  A locale or DConfigBean version set through the
+ * proxy is restored to its previous value on release, so the next
+ * borrower finds the DeploymentManager as it was created; if it cannot
+ * be restored, the DeploymentManager is released instead of pooled.
+ *
+ * <p> The pool limits the number of idle and of total DeploymentManagers
+ * per key, releases DeploymentManagers that have been idle longer than
+ * the idle timeout, and optionally validates an idle DeploymentManager
+ * by calling <code>getTargets</code> before handing it out.  Idle
+ * eviction is performed whenever the pool is used, or on demand through
+ * {@link #evictIdle()}; the pool does not start any threads.
+ *
+ * @see DeploymentFactoryManager
+ */
+public final class DeploymentManagerPool {
+
+    private final DeploymentFactoryManager factoryManager;
+
+    private final Map<Key, KeyedPool> pools =
+            new HashMap<Key, KeyedPool>();
+
+    private int maxIdle = 8;
+    private int maxTotal = 8;
+    private long idleTimeout = 5 * 60 * 1000L;
+    private long maxWait = 0L;
+    private boolean validateOnBorrow = true;
+    private boolean closed = false;
+
+    /**
+     * Creates a pool of DeploymentManagers obtained from the given
+     * DeploymentFactoryManager.
+     *
+     * @param factoryManager the source of new DeploymentManagers.
+     */
+    public DeploymentManagerPool(DeploymentFactoryManager factoryManager) {
+        if (factoryManager == null) {
+            throw new IllegalArgumentException("factoryManager is null");
+        }
+        this.factoryManager = factoryManager;
+    }
+
+    /**
+     * Retrieves a connected DeploymentManager for the URI and
+     * credentials, reusing an idle one when available.
+     *
+     * @param uri The uri of the DeploymentManager.
+     * @param username An optional username (may be null if
+     *        no authentication is required for this platform).
+     * @param password An optional password (may be null if
+     *        no authentication is required for this platform).
+     * @return A ready DeploymentManager whose release method returns it
+     *         to this pool.
+     * @throws DeploymentManagerCreationException occurs when no
+     *         DeploymentManager could be created, or when the maximum
+     *         number of DeploymentManagers for the key are in use and none
+     *         was returned within the maximum wait time.
+     */
+    public DeploymentManager getDeploymentManager(String uri,
+            String username, String password)
+            throws DeploymentManagerCreationException {
+        Key key = new Key(uri, username, password);
+        KeyedPool pool;
+        List<DeploymentManager> evicted = new ArrayList<DeploymentManager>();
+        while (true) {
+            PooledInstance instance = null;
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException(
+                            "DeploymentManagerPool is closed");
+                }
+                evictExpired(System.currentTimeMillis(), evicted);
+                pool = pools.get(key);
+                if (pool == null) {
+                    pool = new KeyedPool();
+                    pools.put(key, pool);
+                }
+                long deadline = System.currentTimeMillis() + maxWait;
+                while (pool.idle.isEmpty() && pool.total >= maxTotal) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new DeploymentManagerCreationException(
+                                "All " + maxTotal + " DeploymentManagers for ["
+                                + uri + "] are in use");
+                    }
+                    // A pool with waiters is kept by evictExpired.
+                    pool.waiters++;
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new DeploymentManagerCreationException(
+                                "Interrupted waiting for a DeploymentManager");
+                    } finally {
+                        pool.waiters--;
+                    }
+                    if (closed) {
+                        throw new IllegalStateException(
+                                "DeploymentManagerPool is closed");
+                    }
+                }
+                if (!pool.idle.isEmpty()) {
+                    instance = pool.idle.removeLast();
+                }
+                // Reserve the slot before leaving the monitor.
+                pool.borrowed++;
+                if (instance == null) {
+                    pool.total++;
+                }
+            }
+            releaseAll(evicted);
+            if (instance == null) {
+                return create(pool, uri, username, password);
+            }
+            if (!validateOnBorrow || isValid(instance.manager)) {
+                return wrap(pool, instance.manager);
+            }
+            discard(pool, instance.manager);
+        }
+    }
+
+    /**
+     * Releases every idle DeploymentManager that has been idle longer
+     * than the idle timeout.
+     */
+    public void evictIdle() {
+        List<DeploymentManager> evicted = new ArrayList<DeploymentManager>();
+        synchronized (this) {
+            evictExpired(System.currentTimeMillis(), evicted);
+        }
+        releaseAll(evicted);
+    }
+
+    /**
+     * Releases all idle DeploymentManagers and closes the pool.
+     * DeploymentManagers that are still in use are released when they
+     * are returned.
+     */
+    public void close() {
+        List<DeploymentManager> evicted = new ArrayList<DeploymentManager>();
+        synchronized (this) {
+            closed = true;
+            for (Iterator<KeyedPool> it = pools.values().iterator();
+                    it.hasNext();) {
+                KeyedPool pool = it.next();
+                while (!pool.idle.isEmpty()) {
+                    evicted.add(pool.idle.removeFirst().manager);
+                    pool.total--;
+                }
+            }
+            notifyAll();
+        }
+        releaseAll(evicted);
+    }
+
+    /**
+     * Returns the number of idle DeploymentManagers in the pool.
+     *
+     * @return the idle count over all keys.
+     */
+    public synchronized int getIdleCount() {
+        int count = 0;
+        for (Iterator<KeyedPool> it = pools.values().iterator();
+                it.hasNext();) {
+            count += it.next().idle.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of DeploymentManagers currently handed out.
+     *
+     * @return the borrowed count over all keys.
+     */
+    public synchronized int getActiveCount() {
+        int count = 0;
+        for (Iterator<KeyedPool> it = pools.values().iterator();
+                it.hasNext();) {
+            count += it.next().borrowed;
+        }
+        return count;
+    }
+
+    /**
+     * Sets the maximum number of idle DeploymentManagers kept per key.
+     * The default is 8.
+     *
+     * @param maxIdle the maximum idle count per key.
+     */
+    public synchronized void setMaxIdle(int maxIdle) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException(
+                    "maxIdle must not be negative: " + maxIdle);
+        }
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns the maximum number of idle DeploymentManagers kept per key.
+     *
+     * @return the maximum idle count per key.
+     */
+    public synchronized int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * Sets the maximum number of DeploymentManagers, idle or in use, per
+     * key.  The default is 8.
+     *
+     * @param maxTotal the maximum total count per key.
+     */
+    public synchronized void setMaxTotal(int maxTotal) {
+        if (maxTotal < 1) {
+            throw new IllegalArgumentException(
+                    "maxTotal must be positive: " + maxTotal);
+        }
+        this.maxTotal = maxTotal;
+        notifyAll();
+    }
+
+    /**
+     * Returns the maximum number of DeploymentManagers, idle or in use,
+     * per key.
+     *
+     * @return the maximum total count per key.
+     */
+    public synchronized int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * Sets the time after which an idle DeploymentManager is released.
+     * The default is five minutes.
+     *
+     * @param idleTimeout the idle timeout in milliseconds.
+     */
+    public synchronized void setIdleTimeout(long idleTimeout) {
+        if (idleTimeout < 0) {
+            throw new IllegalArgumentException(
+                    "idleTimeout must not be negative: " + idleTimeout);
+        }
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns the time after which an idle DeploymentManager is released.
+     *
+     * @return the idle timeout in milliseconds.
+     */
+    public synchronized long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets how long getDeploymentManager waits for a DeploymentManager
+     * to be returned when the maximum total for its key is in use.  The
+     * default of 0 fails immediately.
+     *
+     * @param maxWait the maximum wait in milliseconds.
+     */
+    public synchronized void setMaxWait(long maxWait) {
+        if (maxWait < 0) {
+            throw new IllegalArgumentException(
+                    "maxWait must not be negative: " + maxWait);
+        }
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Returns how long getDeploymentManager waits for a DeploymentManager
+     * to be returned.
+     *
+     * @return the maximum wait in milliseconds.
+     */
+    public synchronized long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Sets whether an idle DeploymentManager is validated by calling
+     * <code>getTargets</code> before it is handed out.  The default is
+     * true.
+     *
+     * @param validateOnBorrow true to validate idle DeploymentManagers.
+     */
+    public synchronized void setValidateOnBorrow(boolean validateOnBorrow) {
+        this.validateOnBorrow = validateOnBorrow;
+    }
+
+    /**
+     * Returns whether idle DeploymentManagers are validated before they
+     * are handed out.
+     *
+     * @return true if idle DeploymentManagers are validated.
+     */
+    public synchronized boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    private DeploymentManager create(KeyedPool pool, String uri,
+            String username, String password)
+            throws DeploymentManagerCreationException {
+        boolean created = false;
+        try {
+            DeploymentManager manager = factoryManager.getDeploymentManager(
+                    uri, username, password);
+            if (manager == null) {
+                throw new DeploymentManagerCreationException(
+                        "No DeploymentManager returned for [" + uri + "]");
+            }
+            created = true;
+            return wrap(pool, manager);
+        } finally {
+            if (!created) {
+                synchronized (this) {
+                    pool.borrowed--;
+                    pool.total--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private void discard(KeyedPool pool, DeploymentManager manager) {
+        synchronized (this) {
+            pool.borrowed--;
+            pool.total--;
+            notifyAll();
+        }
+        releaseQuietly(manager);
+    }
+
+    /**
+     * Called when a borrowed DeploymentManager is released by its user.
+     */
+    private void giveBack(KeyedPool pool, DeploymentManager manager) {
+        boolean keep;
+        synchronized (this) {
+            pool.borrowed--;
+            keep = !closed && pool.idle.size() < maxIdle;
+            if (keep) {
+                pool.idle.addLast(new PooledInstance(manager,
+                        System.currentTimeMillis()));
+            } else {
+                pool.total--;
+            }
+            notifyAll();
+        }
+        if (!keep) {
+            releaseQuietly(manager);
+        }
+    }
+
+    // Must be called holding the pool monitor.
+    private void evictExpired(long now, List<DeploymentManager> evicted) {
+        for (Iterator<KeyedPool> it = pools.values().iterator();
+                it.hasNext();) {
+            KeyedPool pool = it.next();
+            // Idle instances are kept oldest first.
+            while (!pool.idle.isEmpty()
+                    && now - pool.idle.getFirst().idleSince >= idleTimeout) {
+                evicted.add(pool.idle.removeFirst().manager);
+                pool.total--;
+            }
+            // A pool with waiters must stay the pool of its key, or they
+            // would reserve slots in a pool no longer tracked.
+            if (pool.total == 0 && pool.waiters == 0) {
+                it.remove();
+            }
+        }
+        if (!evicted.isEmpty()) {
+            notifyAll();
+        }
+    }
+
+    private DeploymentManager wrap(KeyedPool pool,
+            DeploymentManager manager) {
+        Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+        for (Class<?> c = manager.getClass(); c != null;
+                c = c.getSuperclass()) {
+            Class<?>[] declared = c.getInterfaces();
+            for (int i = 0; i < declared.length; i++) {
+                if (Modifier.isPublic(declared[i].getModifiers())) {
+                    interfaces.add(declared[i]);
+                }
+            }
+        }
+        interfaces.add(DeploymentManager.class);
+        ClassLoader loader = manager.getClass().getClassLoader();
+        try {
+            return (DeploymentManager) Proxy.newProxyInstance(loader,
+                    interfaces.toArray(new Class<?>[interfaces.size()]),
+                    new PooledHandler(pool, manager));
+        } catch (IllegalArgumentException e) {
+            // Some interfaces are not visible from the product's loader.
+            return (DeploymentManager) Proxy.newProxyInstance(
+                    DeploymentManager.class.getClassLoader(),
+                    new Class<?>[] { DeploymentManager.class },
+                    new PooledHandler(pool, manager));
+        }
+    }
+
+    private static boolean isValid(DeploymentManager manager) {
+        try {
+            manager.getTargets();
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private static void releaseAll(List<DeploymentManager> managers) {
+        for (Iterator<DeploymentManager> it = managers.iterator();
+                it.hasNext();) {
+            releaseQuietly(it.next());
+        }
+        managers.clear();
+    }
+
+    private static void releaseQuietly(DeploymentManager manager) {
+        try {
+            manager.release();
+        } catch (Throwable t) {
+            // The DeploymentManager is being discarded anyway.
+        }
+    }
+
+    /**
+     * Routes calls to the pooled DeploymentManager until it is released,
+     * and restores the settings changed through it when it is.
+     */
+    private final class PooledHandler implements InvocationHandler {
+
+        private final KeyedPool pool;
+        private DeploymentManager manager;
+        // The settings before they were first changed; guarded by this.
+        private boolean localeChanged;
+        private Locale locale;
+        private boolean versionChanged;
+        private DConfigBeanVersionType version;
+
+        PooledHandler(KeyedPool pool, DeploymentManager manager) {
+            this.pool = pool;
+            this.manager = manager;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                if (name.equals("equals")) {
+                    return Boolean.valueOf(proxy == args[0]);
+                }
+                if (name.equals("hashCode")) {
+                    return Integer.valueOf(System.identityHashCode(proxy));
+                }
+            }
+            boolean release = name.equals("release")
+                    && method.getParameterTypes().length == 0;
+            DeploymentManager target;
+            synchronized (this) {
+                target = manager;
+                if (release) {
+                    manager = null;
+                }
+            }
+            if (release) {
+                if (target == null) {
+                    return null;
+                }
+                if (restore(target)) {
+                    giveBack(pool, target);
+                } else {
+                    discard(pool, target);
+                }
+                return null;
+            }
+            if (target == null) {
+                throw new IllegalStateException(
+                        "DeploymentManager has been released");
+            }
+            if (method.getDeclaringClass() == DeploymentManager.class) {
+                save(target, name);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Remembers a setting before the named method first changes it.
+         */
+        private synchronized void save(DeploymentManager target,
+                String name) {
+            if (name.equals("setLocale") && !localeChanged) {
+                locale = target.getCurrentLocale();
+                localeChanged = true;
+            } else if (name.equals("setDConfigBeanVersion")
+                    && !versionChanged) {
+                version = target.getDConfigBeanVersion();
+                versionChanged = true;
+            }
+        }
+
+        /**
+         * Restores the settings changed through the proxy.
+         *
+         * @return false if they could not be restored.
+         */
+        private synchronized boolean restore(DeploymentManager target) {
+            try {
+                if (localeChanged) {
+                    target.setLocale(locale);
+                }
+                if (versionChanged) {
+                    target.setDConfigBeanVersion(version);
+                }
+                return true;
+            } catch (Throwable t) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * The idle DeploymentManagers and usage counts for one key.
+     */
+    private static final class KeyedPool {
+        final LinkedList<PooledInstance> idle =
+                new LinkedList<PooledInstance>();
+        int borrowed;
+        int total;
+        int waiters;
+    }
+
+    private static final class PooledInstance {
+        final DeploymentManager manager;
+        final long idleSince;
+
+        PooledInstance(DeploymentManager manager, long idleSince) {
+            this.manager = manager;
+            this.idleSince = idleSince;
+        }
+    }
+
+    /**
+     * Pool key: the URI, the user name and a digest of the password, so
+     * that the password itself is not retained.
+     */
+    private static final class Key {
+        private final String uri;
+        private final String username;
+        private final byte[] credential;
+
+        Key(String uri, String username, String password) {
+            this.uri = uri;
+            this.username = username;
+            this.credential = digest(password);
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return equal(uri, other.uri) && equal(username, other.username)
+                    && MessageDigest.isEqual(credential, other.credential);
+        }
+
+        public int hashCode() {
+            int h = uri == null ? 0 : uri.hashCode();
+            h = 31 * h + (username == null ? 0 : username.hashCode());
+            return h;
+        }
+
+        private static boolean equal(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        private static byte[] digest(String password) {
+            if (password == null) {
+                return new byte[0];
+            }
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(
+                        ("pw:" + password).getBytes("UTF-8"));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e.toString());
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e.toString());
+            }
+        }
+    }
+}
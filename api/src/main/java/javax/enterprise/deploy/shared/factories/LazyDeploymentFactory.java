@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.shared.factories;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.exceptions.DeploymentManagerCreationException;
+import javax.enterprise.deploy.spi.factories.DeploymentFactory;
+import javax.enterprise.deploy.spi.factories.PrefixedDeploymentFactory;
+
+/**
+ * A placeholder for a DeploymentFactory provider found through
+ * <code>META-INF/services</code>.  The provider class is neither loaded
+ * nor instantiated until the placeholder is asked to handle a URI it has
+ * not declared, or to create a DeploymentManager.
+ *
+ * <p> URI prefixes may be declared without loading the provider in a
+ * <code>META-INF/deployment-factory-prefixes.properties</code> resource,
+ * which maps a provider class name to a comma separated list of
+ * prefixes.  The declared prefixes are authoritative: a placeholder with
+ * declared prefixes handles exactly the URIs that start with one of them.
+ */
+final class LazyDeploymentFactory implements PrefixedDeploymentFactory {
+
+    static final String SERVICES_RESOURCE =
+            "META-INF/services/" + DeploymentFactory.class.getName();
+
+    static final String PREFIXES_RESOURCE =
+            "META-INF/deployment-factory-prefixes.properties";
+
+    private static final String[] NO_PREFIXES = new String[0];
+
+    private final String className;
+    private final ClassLoader loader;
+    private final String[] prefixes;
+
+    private DeploymentFactory factory;
+    private Throwable loadFailure;
+
+    LazyDeploymentFactory(String className, ClassLoader loader,
+            String[] prefixes) {
+        this.className = className;
+        this.loader = loader;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * Reads the provider declarations visible to the class loader, in
+     * resource order, without loading any provider class.
+     */
+    static List<LazyDeploymentFactory> discover(ClassLoader loader)
+            throws IOException {
+        Properties declaredPrefixes = new Properties();
+        Enumeration<URL> resources = loader.getResources(PREFIXES_RESOURCE);
+        while (resources.hasMoreElements()) {
+            InputStream in = resources.nextElement().openStream();
+            try {
+                Properties p = new Properties();
+                p.load(in);
+                // The first declaration of a provider wins.
+                for (Enumeration<?> names = p.propertyNames();
+                        names.hasMoreElements();) {
+                    String name = (String) names.nextElement();
+                    if (!declaredPrefixes.containsKey(name)) {
+                        declaredPrefixes.setProperty(name,
+                                p.getProperty(name));
+                    }
+                }
+            } finally {
+                in.close();
+            }
+        }
+
+        Set<String> classNames = new LinkedHashSet<String>();
+        resources = loader.getResources(SERVICES_RESOURCE);
+        while (resources.hasMoreElements()) {
+            readProviderNames(resources.nextElement(), classNames);
+        }
+
+        List<LazyDeploymentFactory> found =
+                new ArrayList<LazyDeploymentFactory>(classNames.size());
+        for (String name : classNames) {
+            found.add(new LazyDeploymentFactory(name, loader,
+                    parsePrefixes(declaredPrefixes.getProperty(name))));
+        }
+        return found;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    ClassLoader getClassLoader() {
+        return loader;
+    }
+
+    public String[] getURIPrefixes() {
+        return prefixes.clone();
+    }
+
+    public boolean handlesURI(String uri) {
+        if (prefixes.length > 0) {
+            if (uri == null) {
+                return false;
+            }
+            for (int i = 0; i < prefixes.length; i++) {
+                if (uri.startsWith(prefixes[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        DeploymentFactory delegate = load();
+        return delegate != null && delegate.handlesURI(uri);
+    }
+
+    public DeploymentManager getDeploymentManager(String uri,
+            String username, String password)
+            throws DeploymentManagerCreationException {
+        return loadOrFail().getDeploymentManager(uri, username, password);
+    }
+
+    public DeploymentManager getDisconnectedDeploymentManager(String uri)
+            throws DeploymentManagerCreationException {
+        return loadOrFail().getDisconnectedDeploymentManager(uri);
+    }
+
+    public String getDisplayName() {
+        DeploymentFactory delegate = load();
+        return delegate == null ? className : delegate.getDisplayName();
+    }
+
+    public String getProductVersion() {
+        DeploymentFactory delegate = load();
+        return delegate == null ? null : delegate.getProductVersion();
+    }
+
+    public String toString() {
+        return "LazyDeploymentFactory[" + className + "]";
+    }
+
+    private DeploymentFactory loadOrFail()
+            throws DeploymentManagerCreationException {
+        DeploymentFactory delegate = load();
+        if (delegate == null) {
+            DeploymentManagerCreationException e =
+                    new DeploymentManagerCreationException(
+                            "Could not load DeploymentFactory " + className);
+            e.initCause(loadFailure);
+            throw e;
+        }
+        return delegate;
+    }
+
+    /**
+     * Loads and instantiates the provider once.
+     *
+     * @return the provider or null if it could not be loaded.
+     */
+    private synchronized DeploymentFactory load() {
+        if (factory == null && loadFailure == null) {
+            try {
+                Class<?> c = Class.forName(className, true, loader);
+                factory = (DeploymentFactory) c.newInstance();
+            } catch (Throwable t) {
+                loadFailure = t;
+            }
+        }
+        return factory;
+    }
+
+    private static void readProviderNames(URL resource, Set<String> names)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.openStream(), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                line = line.trim();
+                if (line.length() > 0) {
+                    names.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String[] parsePrefixes(String value) {
+        if (value == null) {
+            return NO_PREFIXES;
+        }
+        List<String> parsed = new ArrayList<String>();
+        String[] parts = value.split(",");
+        for (int i = 0; i < parts.length; i++) {
+            String prefix = parts[i].trim();
+            if (prefix.length() > 0) {
+                parsed.add(prefix);
+            }
+        }
+        return parsed.toArray(new String[parsed.size()]);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.shared.factories;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.enterprise.deploy.spi.factories.DeploymentFactory;
+
+/**
+ * A bounded cache of the DeploymentFactory that accepted a URI.  Each
+ * entry remembers the registry snapshot it was resolved against and is
+ * ignored once that snapshot has been replaced, so a registration change
+ * can never return a stale factory even if a concurrent lookup
+ * repopulates the cache.
+ *
+ * <p> Lookups do not lock.  When the cache grows past its bound, entries
+ * of replaced snapshots are dropped first, then arbitrary entries, so
+ * the bound is approximate while insertions race.
+ */
+final class ResolvedFactoryCache {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ConcurrentHashMap<String, CachedFactory> entries =
+            new ConcurrentHashMap<String, CachedFactory>();
+    private volatile int maxEntries;
+
+    ResolvedFactoryCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached factory for the URI if it was resolved against
+     * the given registry snapshot, and counts the lookup as a hit or miss.
+     */
+    DeploymentFactory get(String uri, DeploymentFactoryRegistry registry) {
+        CachedFactory entry = entries.get(uri);
+        if (entry != null && entry.registry == registry) {
+            hits.increment();
+            return entry.factory;
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(String uri, DeploymentFactoryRegistry registry,
+            DeploymentFactory factory) {
+        int max = maxEntries;
+        if (max == 0) {
+            return;
+        }
+        entries.put(uri, new CachedFactory(registry, factory));
+        if (entries.size() > max) {
+            trim(max, registry);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    void setMaxEntries(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException(
+                    "maxEntries must not be negative: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        trim(maxEntries, null);
+    }
+
+    int getMaxEntries() {
+        return maxEntries;
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes entries until at most max remain, those not resolved
+     * against the current snapshot first.
+     */
+    private void trim(int max, DeploymentFactoryRegistry current) {
+        if (current != null) {
+            for (Iterator<CachedFactory> it = entries.values().iterator();
+                    entries.size() > max && it.hasNext();) {
+                if (it.next().registry != current) {
+                    it.remove();
+                }
+            }
+        }
+        for (Iterator<String> it = entries.keySet().iterator();
+                entries.size() > max && it.hasNext();) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static final class CachedFactory {
+        final DeploymentFactoryRegistry registry;
+        final DeploymentFactory factory;
+
+        CachedFactory(DeploymentFactoryRegistry registry,
+                DeploymentFactory factory) {
+            this.registry = registry;
+            this.factory = factory;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.exceptions;
+
+import javax.enterprise.deploy.spi.status.DeploymentStatus;
+
+/**
+ * This exception is to report that a deployment operation
+ * ended with a failed status.
+ */
+public class OperationFailedException extends Exception
+{
+   private static final long serialVersionUID = 1L;
+
+   private final transient DeploymentStatus status;
+
+   /**
+    * Creates an new OperationFailedException object.
+    *
+    * @param status the final status of the operation.
+    */
+   public OperationFailedException(DeploymentStatus status)
+   {
+      super(status.getMessage() != null ? status.getMessage()
+            : status.getCommand() + " failed");
+      this.status = status;
+   }
+
+   /**
+    * Returns the final status of the failed operation.
+    *
+    * @return the status, or null if the exception was deserialized.
+    */
+   public DeploymentStatus getDeploymentStatus()
+   {
+      return status;
+   }
+}
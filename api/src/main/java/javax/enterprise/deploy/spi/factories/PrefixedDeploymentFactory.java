@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.factories;
+
+/**
+ * A PrefixedDeploymentFactory is a DeploymentFactory that declares
+ * up front which deployment URIs it serves.
+ *
+ * <p> A DeploymentFactory that implements this optional interface is
+ * indexed by the DeploymentFactoryManager under each of its declared
+ * prefixes.  A URI that starts with a declared prefix is dispatched to
+ * the factory directly, without calling {@link #handlesURI(String)}
+ * on it or on any other registered factory.  URIs that match no
+ * declared prefix are still offered to every registered factory
+ * through <code>handlesURI</code>, in registration order.
+ *
+ * <p> A typical prefix includes the URI scheme and the vendor
+ * designator, for example <code>"deployer:Sun:AppServer:"</code>.
+ *
+ * @see javax.enterprise.deploy.shared.factories.DeploymentFactoryManager
+ */
+public interface PrefixedDeploymentFactory extends DeploymentFactory
+{
+    /**
+     * Provide the URI prefixes this factory serves.  Every URI that
+     * starts with one of the returned prefixes must be accepted by
+     * {@link #handlesURI(String)}.  The returned value is read once
+     * when the factory is registered and must not change afterwards.
+     *
+     * @return the URI prefixes served by this factory, or an empty
+     *         array if none are declared.
+     */
+    public String[] getURIPrefixes();
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.inventory;
+
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.exceptions.TargetException;
+
+/**
+ * An optional extension of a DeploymentManager that reports the modules
+ * of every type and state on a set of targets in a single request,
+ * instead of one getRunningModules, getNonRunningModules or
+ * getAvailableModules call per module type.
+ *
+ * @see ModuleInventory#query
+ */
+public interface BulkInventory
+{
+    /**
+     * Retrieve the modules of every type and state on the targets.
+     *
+     * @param targetList A list of deployment Target designators
+     *                   the user wants checked.
+     * @return the inventory of the targets.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     * @throws TargetException An invalid Target designator
+     *                   encountered.
+     */
+    public ModuleInventory getModuleInventory(Target[] targetList)
+            throws TargetException, IllegalStateException;
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.inventory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.exceptions.TargetException;
+import javax.enterprise.deploy.spi.status.BasicDeploymentStatus;
+import javax.enterprise.deploy.spi.status.DeploymentStatus;
+import javax.enterprise.deploy.spi.status.ProgressEvent;
+import javax.enterprise.deploy.spi.status.ProgressListener;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+
+/**
+ * A client-side cache of the module inventories of a DeploymentManager's
+ * targets.
+ *
+ * <p> An inventory is retrieved with {@link ModuleInventory#query}, kept
+ * for the configured time to live and shared by every caller asking for
+ * the same targets in that time.  Callers asking while an inventory is
+ * being retrieved wait for it instead of sending their own request.
+ *
+ * <p> Operations that change what is deployed are passed to
+ * {@link #track(ProgressObject)}.  When a tracked start, stop, undeploy,
+ * distribute or redeploy operation ends, the cached inventories of the
+ * targets it involved are discarded.  If the operation failed or did not
+ * report its targets, every cached inventory is.
+ *
+ * <p> The cache holds the inventories of a bounded number of target
+ * lists; the least recently used are evicted when it is full.
+ */
+public class InventoryCache {
+
+    /**
+     * The default maximum number of target lists whose inventories are
+     * held.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private final DeploymentManager manager;
+    private final long ttlNanos;
+    // Guarded by itself.
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private final Map<List<String>, Entry> entries =
+            new LinkedHashMap<List<String>, Entry>(16, 0.75f, true) {
+                // Within the map, Entry names the inherited Map.Entry.
+                protected boolean removeEldestEntry(Map.Entry<List<String>,
+                        InventoryCache.Entry> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache of a DeploymentManager's inventories.
+     *
+     * @param manager the DeploymentManager.
+     * @param ttl the time an inventory is kept.
+     * @param unit the unit of the time to live.
+     */
+    public InventoryCache(DeploymentManager manager, long ttl,
+            TimeUnit unit) {
+        if (manager == null) {
+            throw new IllegalArgumentException("manager is null");
+        }
+        if (ttl < 0) {
+            throw new IllegalArgumentException("Negative time to live "
+                    + ttl);
+        }
+        this.manager = manager;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Returns the inventory of the targets, from the cache if it has not
+     * expired.
+     *
+     * @param targetList the targets to query.
+     * @return the inventory of the targets.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     * @throws TargetException An invalid Target designator
+     *                   encountered.
+     */
+    public ModuleInventory getInventory(Target[] targetList)
+            throws TargetException {
+        List<String> key = new ArrayList<String>(targetList.length);
+        for (int i = 0; i < targetList.length; i++) {
+            key.add(targetList[i].getName());
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+            }
+        }
+        // Holding the entry's lock makes concurrent callers for the same
+        // targets wait for a single query.
+        synchronized (entry) {
+            long now = System.nanoTime();
+            if (entry.inventory != null && entry.generation == generation(entry)
+                    && now - entry.loadedNanos < ttlNanos) {
+                hits.incrementAndGet();
+                return entry.inventory;
+            }
+            misses.incrementAndGet();
+            long generation = generation(entry);
+            ModuleInventory inventory =
+                    ModuleInventory.query(manager, targetList);
+            entry.inventory = inventory;
+            entry.loadedNanos = now;
+            entry.generation = generation;
+            return inventory;
+        }
+    }
+
+    /**
+     * Sets the maximum number of target lists whose inventories are
+     * held, evicting the least recently used ones if there are more.
+     *
+     * @param maximumSize the maximum size.
+     * @throws IllegalArgumentException if maximumSize is negative.
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException(
+                    "maximumSize < 0: " + maximumSize);
+        }
+        synchronized (entries) {
+            this.maximumSize = maximumSize;
+            for (Iterator<Entry> it = entries.values().iterator();
+                    entries.size() > maximumSize && it.hasNext();) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of target lists whose inventories are
+     * held.
+     *
+     * @return the maximum size.
+     */
+    public int getMaximumSize() {
+        synchronized (entries) {
+            return maximumSize;
+        }
+    }
+
+    /**
+     * Returns the number of target lists whose inventories are held.
+     *
+     * @return the size of the cache.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Discards every cached inventory.
+     */
+    public void invalidate() {
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                entry.invalidated++;
+            }
+        }
+    }
+
+    /**
+     * Discards the cached inventories that include a target.
+     *
+     * @param target the target whose modules changed.
+     */
+    public void invalidate(Target target) {
+        String name = target.getName();
+        synchronized (entries) {
+            for (Iterator<Map.Entry<List<String>, Entry>> it =
+                    entries.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<List<String>, Entry> e = it.next();
+                if (e.getKey().contains(name)) {
+                    e.getValue().invalidated++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards the affected inventories when an operation ends.  The
+     * operation is returned unchanged, so a call can be wrapped:
+     * <code>cache.track(manager.start(ids))</code>.
+     *
+     * @param po the ProgressObject of the operation.
+     * @return the ProgressObject.
+     */
+    public ProgressObject track(final ProgressObject po) {
+        final AtomicBoolean done = new AtomicBoolean();
+        ProgressListener listener = new ProgressListener() {
+            public void handleProgressEvent(ProgressEvent event) {
+                ended(po, this, done);
+            }
+        };
+        po.addProgressListener(listener);
+        ended(po, listener, done);
+        return po;
+    }
+
+    /**
+     * Returns the number of inventories served from the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of inventories retrieved from the
+     * DeploymentManager.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void ended(ProgressObject po, ProgressListener listener,
+            AtomicBoolean done) {
+        DeploymentStatus status = po.getDeploymentStatus();
+        if (!BasicDeploymentStatus.isTerminal(status)
+                || !done.compareAndSet(false, true)) {
+            return;
+        }
+        po.removeProgressListener(listener);
+        CommandType command = status.getCommand();
+        if (command != CommandType.START && command != CommandType.STOP
+                && command != CommandType.UNDEPLOY
+                && command != CommandType.DISTRIBUTE
+                && command != CommandType.REDEPLOY) {
+            return;
+        }
+        TargetModuleID[] ids = po.getResultTargetModuleIDs();
+        if (status.isFailed() || ids == null || ids.length == 0) {
+            // The operation may have changed targets without reporting
+            // which.
+            invalidate();
+            return;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            invalidate(ids[i].getTarget());
+        }
+    }
+
+    private long generation(Entry entry) {
+        synchronized (entries) {
+            return entry.invalidated;
+        }
+    }
+
+    private static final class Entry {
+        ModuleInventory inventory;
+        long loadedNanos;
+        // The invalidation count the inventory was loaded at.
+        long generation;
+        // Guarded by the entries map.
+        long invalidated;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.inventory;
+
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.spi.TargetModuleID;
+
+/**
+ * A change of the modules deployed on a target, as reported by a
+ * {@link ModuleChangeFeed}.
+ */
+public final class ModuleChange {
+
+    /**
+     * The kinds of change.
+     */
+    public enum Kind {
+        /** The module was deployed. */
+        ADDED,
+        /** The module was undeployed. */
+        REMOVED,
+        /** The module was started or stopped. */
+        STATE_CHANGED
+    }
+
+    private final long sequence;
+    private final Kind kind;
+    private final TargetModuleID module;
+    private final ModuleType type;
+    private final ModuleState state;
+
+    /**
+     * Creates a change.
+     *
+     * @param sequence the sequence number of the change.
+     * @param kind the kind of change.
+     * @param module the module that changed.
+     * @param type the type of the module.
+     * @param state the state of the module after the change, or its last
+     *              state if it was removed.
+     */
+    public ModuleChange(long sequence, Kind kind, TargetModuleID module,
+            ModuleType type, ModuleState state) {
+        this.sequence = sequence;
+        this.kind = kind;
+        this.module = module;
+        this.type = type;
+        this.state = state;
+    }
+
+    /**
+     * Returns the sequence number of the change.  Sequence numbers of a
+     * feed increase with every change.
+     *
+     * @return the sequence number.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the kind of change.
+     *
+     * @return the kind of change.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the module that changed.
+     *
+     * @return the module.
+     */
+    public TargetModuleID getModule() {
+        return module;
+    }
+
+    /**
+     * Returns the type of the module.
+     *
+     * @return the module type.
+     */
+    public ModuleType getModuleType() {
+        return type;
+    }
+
+    /**
+     * Returns the state of the module after the change, or the last
+     * state of a removed module.
+     *
+     * @return the module state.
+     */
+    public ModuleState getState() {
+        return state;
+    }
+
+    public String toString() {
+        return sequence + " " + kind + " " + module + " " + type + " "
+                + state;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.inventory;
+
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.exceptions.TargetException;
+
+/**
+ * An optional extension of a DeploymentManager that reports changes of
+ * the modules deployed on targets incrementally.  Instead of listing
+ * every module again, a tool remembers the sequence number of the last
+ * change it has seen and asks for the changes that followed.
+ *
+ * <p> As long as a feed keeps them, the changes since sequence number 0
+ * describe the whole inventory.  A feed may discard old changes; a tool
+ * asking for changes the feed no longer has receives null.  It then
+ * reads the current sequence number, reads the inventory with
+ * {@link ModuleInventory#query}, and continues from that sequence
+ * number.
+ *
+ * <p> {@link PollingChangeFeed} provides a feed for DeploymentManagers
+ * that do not implement this interface.
+ */
+public interface ModuleChangeFeed
+{
+    /**
+     * Retrieve the sequence number of the last change on the targets.
+     *
+     * @param targetList A list of deployment Target designators
+     *                   the user wants checked.
+     * @return the last sequence number, 0 if there was no change.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     * @throws TargetException An invalid Target designator
+     *                   encountered.
+     */
+    public long getCurrentSequence(Target[] targetList)
+            throws TargetException, IllegalStateException;
+
+    /**
+     * Retrieve the changes on the targets that followed a sequence
+     * number, in sequence order.
+     *
+     * @param targetList A list of deployment Target designators
+     *                   the user wants checked.
+     * @param sequence the sequence number of the last change seen, or 0.
+     * @return the changes with a greater sequence number, an empty array
+     *         if there are none, or null if they are no longer available.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     * @throws TargetException An invalid Target designator
+     *                   encountered.
+     */
+    public ModuleChange[] getChanges(Target[] targetList, long sequence)
+            throws TargetException, IllegalStateException;
+}
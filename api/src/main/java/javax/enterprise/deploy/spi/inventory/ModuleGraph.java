@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.exceptions.TargetException;
+
+/**
+ * An immutable, indexed view of the module hierarchy on a set of
+ * targets, built from one inventory.
+ *
+ * <p> The graph walks every module's children once when it is built and
+ * indexes the modules by target name and module ID, by web URL and by
+ * parent.  Lookups and traversals then take constant time; they only
+ * read the target name and module ID of a TargetModuleID passed in.
+ */
+public final class ModuleGraph {
+
+    private static final ModuleType[] TYPES = {
+        ModuleType.EAR, ModuleType.EJB, ModuleType.CAR, ModuleType.RAR,
+        ModuleType.WAR
+    };
+    private static final TargetModuleID[] NONE = new TargetModuleID[0];
+
+    // Target name to module ID to node.
+    private final Map<String, Map<String, Node>> nodes =
+            new HashMap<String, Map<String, Node>>();
+    private final Map<String, TargetModuleID[]> byWebURL;
+    private final TargetModuleID[] roots;
+    private int size;
+
+    /**
+     * Builds the graph of the modules of an inventory and their
+     * children.
+     *
+     * @param inventory the inventory.
+     */
+    public ModuleGraph(ModuleInventory inventory) {
+        Map<String, List<TargetModuleID>> urls =
+                new HashMap<String, List<TargetModuleID>>();
+        List<Node> top = new ArrayList<Node>();
+        Deque<Node> pending = new ArrayDeque<Node>();
+        ModuleState[] states = ModuleState.values();
+        for (int i = 0; i < states.length; i++) {
+            for (int j = 0; j < TYPES.length; j++) {
+                TargetModuleID[] ids = inventory.getModules(states[i],
+                        TYPES[j]);
+                for (int k = 0; k < ids.length; k++) {
+                    Node node = add(ids[k], null, urls);
+                    if (node != null) {
+                        top.add(node);
+                        pending.push(node);
+                    }
+                }
+            }
+        }
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            TargetModuleID[] children =
+                    node.id.getChildTargetModuleID();
+            if (children == null || children.length == 0) {
+                continue;
+            }
+            List<TargetModuleID> added = new ArrayList<TargetModuleID>();
+            for (int i = 0; i < children.length; i++) {
+                Node child = add(children[i], node.id, urls);
+                if (child != null) {
+                    added.add(children[i]);
+                    pending.push(child);
+                    continue;
+                }
+                // Some DeploymentManagers also list child modules among
+                // the top level modules.
+                Node known = node(children[i]);
+                if (known.parent == null && known != node) {
+                    known.parent = node.id;
+                    added.add(known.id);
+                }
+            }
+            node.children = added.toArray(new TargetModuleID[added.size()]);
+        }
+        List<TargetModuleID> rootList = new ArrayList<TargetModuleID>();
+        for (Node node : top) {
+            if (node.parent == null) {
+                rootList.add(node.id);
+            }
+        }
+        roots = rootList.toArray(new TargetModuleID[rootList.size()]);
+        byWebURL = new HashMap<String, TargetModuleID[]>(urls.size() * 2);
+        for (Map.Entry<String, List<TargetModuleID>> e : urls.entrySet()) {
+            List<TargetModuleID> list = e.getValue();
+            byWebURL.put(e.getKey(),
+                    list.toArray(new TargetModuleID[list.size()]));
+        }
+    }
+
+    /**
+     * Retrieves the inventory of targets and builds its graph.
+     *
+     * @param manager the DeploymentManager of the targets.
+     * @param targetList the targets to query.
+     * @return the module graph of the targets.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     * @throws TargetException An invalid Target designator
+     *                   encountered.
+     */
+    public static ModuleGraph query(DeploymentManager manager,
+            Target[] targetList) throws TargetException {
+        return new ModuleGraph(ModuleInventory.query(manager, targetList));
+    }
+
+    /**
+     * Returns the module with a module ID on a target.
+     *
+     * @param targetName the name of the target.
+     * @param moduleID the module ID.
+     * @return the module, or null if the graph does not hold it.
+     */
+    public TargetModuleID getModule(String targetName, String moduleID) {
+        Node node = node(targetName, moduleID);
+        return node == null ? null : node.id;
+    }
+
+    /**
+     * Returns the modules served at a web URL.
+     *
+     * @param webURL the URL of a web module.
+     * @return the modules; an empty array if there are none.
+     */
+    public TargetModuleID[] getModulesByWebURL(String webURL) {
+        TargetModuleID[] ids = byWebURL.get(webURL);
+        return ids == null ? NONE : ids.clone();
+    }
+
+    /**
+     * Returns the child modules of a module.
+     *
+     * @param module a module of the graph.
+     * @return the children; an empty array if there are none or the
+     *         graph does not hold the module.
+     */
+    public TargetModuleID[] getChildren(TargetModuleID module) {
+        Node node = node(module);
+        return node == null || node.children == null
+                ? NONE : node.children.clone();
+    }
+
+    /**
+     * Returns the parent module of a module.
+     *
+     * @param module a module of the graph.
+     * @return the parent, or null for a root module or a module the
+     *         graph does not hold.
+     */
+    public TargetModuleID getParent(TargetModuleID module) {
+        Node node = node(module);
+        return node == null ? null : node.parent;
+    }
+
+    /**
+     * Returns the modules of the graph that have no parent.
+     *
+     * @return the root modules.
+     */
+    public TargetModuleID[] getRoots() {
+        return roots.clone();
+    }
+
+    /**
+     * Returns the modules of the graph on a target.
+     *
+     * @param targetName the name of the target.
+     * @return the modules; an empty array if there are none.
+     */
+    public TargetModuleID[] getModules(String targetName) {
+        Map<String, Node> onTarget = nodes.get(targetName);
+        if (onTarget == null) {
+            return NONE;
+        }
+        TargetModuleID[] ids = new TargetModuleID[onTarget.size()];
+        int i = 0;
+        for (Node node : onTarget.values()) {
+            ids[i++] = node.id;
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the number of modules in the graph.
+     *
+     * @return the number of modules.
+     */
+    public int size() {
+        return size;
+    }
+
+    private Node node(TargetModuleID module) {
+        return node(module.getTarget().getName(), module.getModuleID());
+    }
+
+    private Node node(String targetName, String moduleID) {
+        Map<String, Node> onTarget = nodes.get(targetName);
+        return onTarget == null ? null : onTarget.get(moduleID);
+    }
+
+    /**
+     * Indexes a module.
+     *
+     * @return the new node, or null if the module was already indexed.
+     */
+    private Node add(TargetModuleID id, TargetModuleID parent,
+            Map<String, List<TargetModuleID>> urls) {
+        String target = id.getTarget().getName();
+        String moduleID = id.getModuleID();
+        Map<String, Node> onTarget = nodes.get(target);
+        if (onTarget == null) {
+            onTarget = new HashMap<String, Node>();
+            nodes.put(target, onTarget);
+        }
+        if (onTarget.containsKey(moduleID)) {
+            return null;
+        }
+        Node node = new Node(id, parent);
+        onTarget.put(moduleID, node);
+        size++;
+        String url = id.getWebURL();
+        if (url != null) {
+            List<TargetModuleID> list = urls.get(url);
+            if (list == null) {
+                list = new ArrayList<TargetModuleID>(1);
+                urls.put(url, list);
+            }
+            list.add(id);
+        }
+        return node;
+    }
+
+    private static final class Node {
+        final TargetModuleID id;
+        TargetModuleID parent;
+        TargetModuleID[] children;
+
+        Node(TargetModuleID id, TargetModuleID parent) {
+            this.id = id;
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.exceptions.TargetException;
+
+/**
+ * The modules deployed on a set of targets, by module type and state.
+ * An inventory is immutable; {@link #with} returns a copy holding more
+ * modules, which lets DeploymentManagers implementing
+ * {@link BulkInventory} build one from their own results.
+ */
+public final class ModuleInventory {
+
+    private static final ModuleType[] TYPES = {
+        ModuleType.EAR, ModuleType.EJB, ModuleType.CAR, ModuleType.RAR,
+        ModuleType.WAR
+    };
+    private static final TargetModuleID[] NONE = new TargetModuleID[0];
+
+    private final Target[] targets;
+    // Indexed by state ordinal times the number of types plus type value.
+    private final TargetModuleID[][] modules;
+
+    /**
+     * Creates an inventory of the targets that holds no module.
+     *
+     * @param targetList the targets of the inventory.
+     */
+    public ModuleInventory(Target[] targetList) {
+        this(targetList.clone(), new TargetModuleID[
+                ModuleState.values().length * TYPES.length][]);
+    }
+
+    private ModuleInventory(Target[] targets, TargetModuleID[][] modules) {
+        this.targets = targets;
+        this.modules = modules;
+    }
+
+    /**
+     * Retrieves the inventory of targets with one request if the
+     * DeploymentManager implements {@link BulkInventory}, and otherwise
+     * with one getRunningModules, getNonRunningModules and
+     * getAvailableModules call per module type.
+     *
+     * @param manager the DeploymentManager of the targets.
+     * @param targetList the targets to query.
+     * @return the inventory of the targets.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     * @throws TargetException An invalid Target designator
+     *                   encountered.
+     */
+    public static ModuleInventory query(DeploymentManager manager,
+            Target[] targetList) throws TargetException {
+        if (manager instanceof BulkInventory) {
+            return ((BulkInventory) manager).getModuleInventory(targetList);
+        }
+        TargetModuleID[][] modules = new TargetModuleID[
+                ModuleState.values().length * TYPES.length][];
+        for (int i = 0; i < TYPES.length; i++) {
+            ModuleType type = TYPES[i];
+            modules[index(ModuleState.RUNNING, type)] =
+                    manager.getRunningModules(type, targetList);
+            modules[index(ModuleState.NON_RUNNING, type)] =
+                    manager.getNonRunningModules(type, targetList);
+            modules[index(ModuleState.AVAILABLE, type)] =
+                    manager.getAvailableModules(type, targetList);
+        }
+        return new ModuleInventory(targetList.clone(), modules);
+    }
+
+    /**
+     * Returns a copy of this inventory that also holds the given modules.
+     *
+     * @param state the state of the modules.
+     * @param type the type of the modules.
+     * @param moduleList the modules, may be null.
+     * @return the new inventory.
+     */
+    public ModuleInventory with(ModuleState state, ModuleType type,
+            TargetModuleID[] moduleList) {
+        TargetModuleID[][] copy = modules.clone();
+        int i = index(state, type);
+        TargetModuleID[] known = copy[i] == null ? NONE : copy[i];
+        TargetModuleID[] added = moduleList == null ? NONE : moduleList;
+        TargetModuleID[] merged =
+                new TargetModuleID[known.length + added.length];
+        System.arraycopy(known, 0, merged, 0, known.length);
+        System.arraycopy(added, 0, merged, known.length, added.length);
+        copy[i] = merged;
+        return new ModuleInventory(targets, copy);
+    }
+
+    /**
+     * Returns the targets of the inventory.
+     *
+     * @return the targets.
+     */
+    public Target[] getTargets() {
+        return targets.clone();
+    }
+
+    /**
+     * Returns the modules of a type in a state.
+     *
+     * @param state the state of the modules.
+     * @param type the type of the modules.
+     * @return the modules; an empty array if there are none.
+     */
+    public TargetModuleID[] getModules(ModuleState state, ModuleType type) {
+        TargetModuleID[] list = modules[index(state, type)];
+        return list == null ? NONE : list.clone();
+    }
+
+    /**
+     * Returns the modules of every type in a state.
+     *
+     * @param state the state of the modules.
+     * @return the modules; an empty array if there are none.
+     */
+    public TargetModuleID[] getModules(ModuleState state) {
+        List<TargetModuleID> all = new ArrayList<TargetModuleID>();
+        for (int i = 0; i < TYPES.length; i++) {
+            TargetModuleID[] list = modules[index(state, TYPES[i])];
+            for (int j = 0; list != null && j < list.length; j++) {
+                all.add(list[j]);
+            }
+        }
+        return all.toArray(new TargetModuleID[all.size()]);
+    }
+
+    private static int index(ModuleState state, ModuleType type) {
+        int value = type.getValue();
+        if (value < 0 || value >= TYPES.length) {
+            throw new IllegalArgumentException("Unknown module type "
+                    + type);
+        }
+        return state.ordinal() * TYPES.length + value;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.exceptions.TargetException;
+
+/**
+ * A {@link ModuleChangeFeed} for DeploymentManagers that do not report
+ * changes themselves.  Every request for changes retrieves the current
+ * inventory through an {@link InventoryCache} and compares it with the
+ * previous one; the differences are numbered and kept so that every
+ * tool polling the same targets receives only the changes it has not
+ * seen yet.
+ *
+ * <p> The comparison uses hash maps keyed by target name and module ID
+ * and so takes time proportional to the number of modules.  At most the
+ * configured number of changes is kept per set of targets; a tool that
+ * falls further behind receives null.  The changes of at most
+ * {@link #setMaximumFeeds(int) a bounded number} of sets of targets are
+ * kept, those least recently polled being discarded first; a tool still
+ * polling a discarded set of targets receives null and starts over.
+ */
+public class PollingChangeFeed implements ModuleChangeFeed {
+
+    private static final ModuleType[] TYPES = {
+        ModuleType.EAR, ModuleType.EJB, ModuleType.CAR, ModuleType.RAR,
+        ModuleType.WAR
+    };
+
+    /**
+     * The default maximum number of sets of targets whose changes are
+     * kept.
+     */
+    public static final int DEFAULT_MAXIMUM_FEEDS = 256;
+
+    /**
+     * The time to live of the inventory cache of a feed created for a
+     * DeploymentManager, in milliseconds.
+     */
+    public static final long DEFAULT_TTL_MILLIS = 1000L;
+
+    private final InventoryCache cache;
+    // Guarded by feeds.
+    private int maximumFeeds = DEFAULT_MAXIMUM_FEEDS;
+    private boolean evicted;
+    private final Map<List<String>, Feed> feeds =
+            new LinkedHashMap<List<String>, Feed>(16, 0.75f, true) {
+                protected boolean removeEldestEntry(
+                        Map.Entry<List<String>, Feed> eldest) {
+                    if (size() > maximumFeeds) {
+                        evicted = true;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+    // The highest sequence number any feed has assigned.
+    private final AtomicLong lastSequence = new AtomicLong();
+    private volatile int maxChanges = 10000;
+
+    /**
+     * Creates a feed that retrieves the inventory at most once every
+     * {@link #DEFAULT_TTL_MILLIS} per set of targets, so that tools
+     * polling more often share one query and see changes that much later.
+     * Each retrieval lists the modules of every type and state on the
+     * targets, a round trip per combination; a feed that must see every
+     * change at once can be given an {@link InventoryCache} with a time to
+     * live of 0.
+     *
+     * @param manager the DeploymentManager of the targets.
+     */
+    public PollingChangeFeed(DeploymentManager manager) {
+        this(new InventoryCache(manager, DEFAULT_TTL_MILLIS,
+                TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Creates a feed that retrieves the inventory through a cache, so
+     * that requests within the cache's time to live share one query.
+     *
+     * @param cache the inventory cache.
+     */
+    public PollingChangeFeed(InventoryCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("cache is null");
+        }
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the change feed of a DeploymentManager: the
+     * DeploymentManager itself if it implements ModuleChangeFeed, and a
+     * new PollingChangeFeed otherwise.
+     *
+     * @param manager the DeploymentManager.
+     * @return the change feed.
+     */
+    public static ModuleChangeFeed getChangeFeed(DeploymentManager manager) {
+        if (manager instanceof ModuleChangeFeed) {
+            return (ModuleChangeFeed) manager;
+        }
+        return new PollingChangeFeed(manager);
+    }
+
+    /**
+     * Sets the maximum number of changes kept per set of targets.  The
+     * default is 10000.
+     *
+     * @param maxChanges the maximum number of changes.
+     */
+    public void setMaxChanges(int maxChanges) {
+        if (maxChanges < 1) {
+            throw new IllegalArgumentException(
+                    "maxChanges must be positive: " + maxChanges);
+        }
+        this.maxChanges = maxChanges;
+    }
+
+    /**
+     * Sets the maximum number of sets of targets whose changes are kept,
+     * discarding the least recently polled ones if there are more.
+     *
+     * @param maximumFeeds the maximum number of sets of targets.
+     * @throws IllegalArgumentException if maximumFeeds is not positive.
+     */
+    public void setMaximumFeeds(int maximumFeeds) {
+        if (maximumFeeds < 1) {
+            throw new IllegalArgumentException(
+                    "maximumFeeds must be positive: " + maximumFeeds);
+        }
+        synchronized (feeds) {
+            this.maximumFeeds = maximumFeeds;
+            for (Iterator<Feed> it = feeds.values().iterator();
+                    feeds.size() > maximumFeeds && it.hasNext();) {
+                it.next();
+                it.remove();
+                evicted = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of sets of targets whose changes are
+     * kept.
+     *
+     * @return the maximum number of sets of targets.
+     */
+    public int getMaximumFeeds() {
+        synchronized (feeds) {
+            return maximumFeeds;
+        }
+    }
+
+    public long getCurrentSequence(Target[] targetList)
+            throws TargetException {
+        Feed feed = feed(targetList);
+        synchronized (feed) {
+            feed.poll(cache.getInventory(targetList), maxChanges);
+            return feed.sequence;
+        }
+    }
+
+    public ModuleChange[] getChanges(Target[] targetList, long sequence)
+            throws TargetException {
+        Feed feed = feed(targetList);
+        synchronized (feed) {
+            feed.poll(cache.getInventory(targetList), maxChanges);
+            if (sequence < feed.oldest - 1) {
+                return null;
+            }
+            List<ModuleChange> result = new ArrayList<ModuleChange>();
+            for (Iterator<ModuleChange> it = feed.changes.descendingIterator();
+                    it.hasNext();) {
+                ModuleChange change = it.next();
+                if (change.getSequence() <= sequence) {
+                    break;
+                }
+                result.add(change);
+            }
+            ModuleChange[] changes = new ModuleChange[result.size()];
+            for (int i = 0; i < changes.length; i++) {
+                changes[i] = result.get(changes.length - 1 - i);
+            }
+            return changes;
+        }
+    }
+
+    private Feed feed(Target[] targetList) {
+        List<String> key = new ArrayList<String>(targetList.length);
+        for (int i = 0; i < targetList.length; i++) {
+            key.add(targetList[i].getName());
+        }
+        synchronized (feeds) {
+            Feed feed = feeds.get(key);
+            if (feed == null) {
+                // Once a feed has been discarded, a new one numbers its
+                // changes after every sequence number handed out, so
+                // that tools still holding one receive null.
+                feed = new Feed(lastSequence,
+                        evicted ? lastSequence.get() + 1 : 0);
+                feeds.put(key, feed);
+            }
+            return feed;
+        }
+    }
+
+    private static String key(TargetModuleID id) {
+        return id.getTarget().getName() + '\n' + id.getModuleID();
+    }
+
+    /**
+     * The changes of one set of targets and the inventory they lead to.
+     */
+    private static final class Feed {
+        final Deque<ModuleChange> changes = new ArrayDeque<ModuleChange>();
+        private final AtomicLong lastSequence;
+        Map<String, Module> modules = new HashMap<String, Module>();
+        ModuleInventory last;
+        long sequence;
+        // The sequence number of the oldest change kept.
+        long oldest;
+
+        Feed(AtomicLong lastSequence, long start) {
+            this.lastSequence = lastSequence;
+            this.sequence = start;
+            this.oldest = start + 1;
+        }
+
+        void poll(ModuleInventory inventory, int maxChanges) {
+            if (inventory == last) {
+                return;
+            }
+            last = inventory;
+            Map<String, Module> current = new HashMap<String, Module>();
+            for (int i = 0; i < TYPES.length; i++) {
+                // Later states take precedence: a module listed both as
+                // available and as running is running.
+                add(current, inventory, ModuleState.AVAILABLE, TYPES[i]);
+                add(current, inventory, ModuleState.NON_RUNNING, TYPES[i]);
+                add(current, inventory, ModuleState.RUNNING, TYPES[i]);
+            }
+            for (Map.Entry<String, Module> e : current.entrySet()) {
+                Module now = e.getValue();
+                Module before = modules.get(e.getKey());
+                if (before == null) {
+                    record(ModuleChange.Kind.ADDED, now, maxChanges);
+                } else if (before.state != now.state) {
+                    record(ModuleChange.Kind.STATE_CHANGED, now, maxChanges);
+                }
+            }
+            for (Map.Entry<String, Module> e : modules.entrySet()) {
+                if (!current.containsKey(e.getKey())) {
+                    record(ModuleChange.Kind.REMOVED, e.getValue(),
+                            maxChanges);
+                }
+            }
+            modules = current;
+        }
+
+        private static void add(Map<String, Module> current,
+                ModuleInventory inventory, ModuleState state,
+                ModuleType type) {
+            TargetModuleID[] ids = inventory.getModules(state, type);
+            for (int i = 0; i < ids.length; i++) {
+                current.put(key(ids[i]), new Module(ids[i], type, state));
+            }
+        }
+
+        private void record(ModuleChange.Kind kind, Module module,
+                int maxChanges) {
+            changes.addLast(new ModuleChange(++sequence, kind, module.id,
+                    module.type, module.state));
+            long last;
+            while ((last = lastSequence.get()) < sequence
+                    && !lastSequence.compareAndSet(last, sequence)) {
+                // Retry with the value another feed has set.
+            }
+            while (changes.size() > maxChanges) {
+                changes.removeFirst();
+                oldest++;
+            }
+        }
+    }
+
+    private static final class Module {
+        final TargetModuleID id;
+        final ModuleType type;
+        final ModuleState state;
+
+        Module(TargetModuleID id, ModuleType type, ModuleState state) {
+            this.id = id;
+            this.type = type;
+            this.state = state;
+        }
+    }
+}
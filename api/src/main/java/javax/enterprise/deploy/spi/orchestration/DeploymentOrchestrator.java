@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.orchestration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.enterprise.deploy.shared.ActionType;
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.shared.StateType;
+import javax.enterprise.deploy.shared.factories.DeploymentFactoryManager;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.status.BasicDeploymentStatus;
+import javax.enterprise.deploy.spi.status.DeploymentStatus;
+import javax.enterprise.deploy.spi.status.ProgressListener;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+
+/**
+ * The DeploymentOrchestrator rolls a module archive out to many targets,
+ * possibly spread over several DeploymentManagers, and reports the whole
+ * rollout through a single ProgressObject.
+ *
+ * <p> The targets added to the orchestrator are processed in waves.  The
+ * first wave holds the canary targets, if any; the remaining targets
+ * follow in waves of the configured wave size.  A wave starts only after
+ * the previous one has finished, and by default no further wave starts
+ * once a target has failed.  Within a wave the targets of each
+ * DeploymentManager are split into batches of the configured batch size;
+ * each batch is distributed with one <code>distribute</code> call and, once
+ * the distribution has completed, started with one <code>start</code> call.
+ * At most the configured parallelism of batches are in progress at a time.
+ *
+ * <p> The ProgressObject returned by
+ * {@link #rollout(File, File)} re-delivers the events of every underlying
+ * distribute and start operation, with itself as the event source.  It
+ * completes when every batch has been processed and fails if any batch
+ * failed.  Stopping it lets batches in progress finish but issues no new
+ * distribute or start operation.  Its result TargetModuleIDs are the
+ * started modules.
+ *
+ * <p> The orchestrator is configured before rollout is called and may be
+ * reused for several rollouts.
+ */
+public class DeploymentOrchestrator {
+
+    private final Map<DeploymentManager, List<Target>> targets =
+            new LinkedHashMap<DeploymentManager, List<Target>>();
+
+    private int parallelism = 4;
+    private int batchSize = 1;
+    private int canaryTargets = 0;
+    private int waveSize = 0;
+    private boolean haltOnFailure = true;
+    private Executor executor;
+
+    /**
+     * Adds targets of a DeploymentManager to the rollout.  Targets are
+     * rolled out in the order they are added.
+     *
+     * @param manager the DeploymentManager the targets belong to.
+     * @param targetList the targets.
+     */
+    public synchronized void addTargets(DeploymentManager manager,
+            Target[] targetList) {
+        List<Target> list = targets.get(manager);
+        if (list == null) {
+            list = new ArrayList<Target>();
+            targets.put(manager, list);
+        }
+        for (int i = 0; i < targetList.length; i++) {
+            list.add(targetList[i]);
+        }
+    }
+
+    /**
+     * Sets the maximum number of batches in progress at a time.  The
+     * default is 4.
+     *
+     * @param parallelism the maximum number of concurrent batches.
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the maximum number of targets passed to one distribute and
+     * start call.  The default is 1.
+     *
+     * @param batchSize the maximum number of targets per batch.
+     */
+    public synchronized void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(
+                    "batchSize must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the number of targets rolled out in the first wave, before
+     * any other target.  The default is 0, no canary wave.
+     *
+     * @param canaryTargets the number of canary targets.
+     */
+    public synchronized void setCanaryTargets(int canaryTargets) {
+        if (canaryTargets < 0) {
+            throw new IllegalArgumentException(
+                    "canaryTargets must not be negative: " + canaryTargets);
+        }
+        this.canaryTargets = canaryTargets;
+    }
+
+    /**
+     * Sets the number of targets per wave after the canary wave.  The
+     * default is 0, all remaining targets in a single wave.
+     *
+     * @param waveSize the number of targets per wave.
+     */
+    public synchronized void setWaveSize(int waveSize) {
+        if (waveSize < 0) {
+            throw new IllegalArgumentException(
+                    "waveSize must not be negative: " + waveSize);
+        }
+        this.waveSize = waveSize;
+    }
+
+    /**
+     * Sets whether no further wave is started after a target has failed.
+     * The default is true.
+     *
+     * @param haltOnFailure true to halt the rollout after a failed wave.
+     */
+    public synchronized void setHaltOnFailure(boolean haltOnFailure) {
+        this.haltOnFailure = haltOnFailure;
+    }
+
+    /**
+     * Sets the executor that runs the rollout.  The executor must be able
+     * to run one more task than the parallelism at the same time.  By
+     * default the DeploymentFactoryManager's asynchronous executor is
+     * used.
+     *
+     * @param executor the executor, or null for the default.
+     */
+    public synchronized void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Distributes and starts the module archive on every added target.
+     * The rollout runs in the background; this method returns at once.
+     *
+     * @param moduleArchive The file name of the application archive
+     *                      to be distributed.
+     * @param deploymentPlan The XML file containing the runtime
+     *                       configuration information associated with
+     *                       this application archive.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the whole rollout.
+     */
+    public ProgressObject rollout(final File moduleArchive,
+            final File deploymentPlan) {
+        final List<List<Batch>> waves;
+        final int limit;
+        final boolean halt;
+        Executor exec;
+        synchronized (this) {
+            waves = planWaves();
+            limit = parallelism;
+            halt = haltOnFailure;
+            exec = executor != null ? executor
+                    : DeploymentFactoryManager.getInstance().getAsyncExecutor();
+        }
+        final Executor runner = exec;
+        final RolloutProgressObject progress =
+                new RolloutProgressObject(CommandType.DISTRIBUTE);
+        runner.execute(new Runnable() {
+            public void run() {
+                runWaves(waves, limit, halt, runner, progress, moduleArchive,
+                        deploymentPlan);
+            }
+        });
+        return progress;
+    }
+
+    private List<List<Batch>> planWaves() {
+        List<Target> all = new ArrayList<Target>();
+        List<DeploymentManager> owners = new ArrayList<DeploymentManager>();
+        for (Map.Entry<DeploymentManager, List<Target>> e
+                : targets.entrySet()) {
+            for (Target t : e.getValue()) {
+                all.add(t);
+                owners.add(e.getKey());
+            }
+        }
+        List<List<Batch>> waves = new ArrayList<List<Batch>>();
+        int start = 0;
+        int size = Math.min(canaryTargets, all.size());
+        while (start < all.size()) {
+            if (size <= 0) {
+                size = waveSize > 0 ? waveSize : all.size() - start;
+            }
+            int end = Math.min(start + size, all.size());
+            waves.add(planBatches(owners.subList(start, end),
+                    all.subList(start, end)));
+            start = end;
+            size = 0;
+        }
+        return waves;
+    }
+
+    private List<Batch> planBatches(List<DeploymentManager> owners,
+            List<Target> wave) {
+        Map<DeploymentManager, List<Target>> byManager =
+                new LinkedHashMap<DeploymentManager, List<Target>>();
+        for (int i = 0; i < wave.size(); i++) {
+            List<Target> list = byManager.get(owners.get(i));
+            if (list == null) {
+                list = new ArrayList<Target>();
+                byManager.put(owners.get(i), list);
+            }
+            list.add(wave.get(i));
+        }
+        List<Batch> batches = new ArrayList<Batch>();
+        for (Map.Entry<DeploymentManager, List<Target>> e
+                : byManager.entrySet()) {
+            List<Target> list = e.getValue();
+            for (int i = 0; i < list.size(); i += batchSize) {
+                List<Target> part =
+                        list.subList(i, Math.min(i + batchSize, list.size()));
+                batches.add(new Batch(e.getKey(),
+                        part.toArray(new Target[part.size()])));
+            }
+        }
+        return batches;
+    }
+
+    private static void runWaves(List<List<Batch>> waves, int parallelism,
+            boolean halt, Executor executor,
+            final RolloutProgressObject progress, final File moduleArchive,
+            final File deploymentPlan) {
+        final AtomicInteger succeeded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final Semaphore permits = new Semaphore(parallelism);
+        int total = 0;
+        for (List<Batch> wave : waves) {
+            for (Batch batch : wave) {
+                total += batch.targets.length;
+            }
+        }
+        try {
+            for (List<Batch> wave : waves) {
+                if (progress.isStopped()
+                        || (halt && failed.get() > 0)) {
+                    break;
+                }
+                for (final Batch batch : wave) {
+                    permits.acquire();
+                    if (progress.isStopped()) {
+                        permits.release();
+                        break;
+                    }
+                    try {
+                        executor.execute(new Runnable() {
+                            public void run() {
+                                try {
+                                    if (runBatch(batch, progress,
+                                            moduleArchive, deploymentPlan)) {
+                                        succeeded.addAndGet(
+                                                batch.targets.length);
+                                    } else {
+                                        failed.addAndGet(
+                                                batch.targets.length);
+                                    }
+                                } finally {
+                                    permits.release();
+                                }
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        permits.release();
+                        failed.addAndGet(batch.targets.length);
+                        progress.report(null, failure(CommandType.DISTRIBUTE,
+                                e.toString()));
+                    }
+                }
+                // The wave is over once every permit is back.
+                permits.acquire(parallelism);
+                permits.release(parallelism);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            progress.report(null, failure(CommandType.DISTRIBUTE,
+                    e.toString()));
+        }
+        int ok = succeeded.get();
+        String message = ok + " of " + total + " targets deployed";
+        progress.fireProgressEvent(null, new BasicDeploymentStatus(
+                ok == total ? StateType.COMPLETED : StateType.FAILED,
+                CommandType.START, ActionType.EXECUTE, message));
+    }
+
+    /**
+     * Distributes and starts one batch.
+     *
+     * @return true if both operations completed.
+     */
+    private static boolean runBatch(Batch batch,
+            RolloutProgressObject progress, File moduleArchive,
+            File deploymentPlan) {
+        try {
+            ProgressObject distributed = track(progress,
+                    batch.manager.distribute(batch.targets, moduleArchive,
+                            deploymentPlan));
+            if (distributed == null) {
+                return false;
+            }
+            if (progress.isStopped()) {
+                return false;
+            }
+            ProgressObject started = track(progress, batch.manager.start(
+                    distributed.getResultTargetModuleIDs()));
+            if (started == null) {
+                return false;
+            }
+            progress.addResultTargetModuleIDs(
+                    started.getResultTargetModuleIDs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (RuntimeException e) {
+            progress.report(null, failure(CommandType.DISTRIBUTE,
+                    e.toString()));
+            return false;
+        }
+    }
+
+    /**
+     * Forwards the events of an operation and waits for it to end.
+     *
+     * @return the ProgressObject if the operation completed, or null.
+     */
+    private static ProgressObject track(RolloutProgressObject progress,
+            ProgressObject po) throws InterruptedException {
+        ProgressListener forwarder = progress.forwardFrom(po);
+        try {
+            DeploymentStatus status = ProgressWaiter.await(po);
+            return status.isCompleted() ? po : null;
+        } finally {
+            po.removeProgressListener(forwarder);
+        }
+    }
+
+    private static DeploymentStatus failure(CommandType command,
+            String message) {
+        return new BasicDeploymentStatus(StateType.FAILED, command,
+                ActionType.EXECUTE, message);
+    }
+
+    private static final class Batch {
+        final DeploymentManager manager;
+        final Target[] targets;
+
+        Batch(DeploymentManager manager, Target[] targets) {
+            this.manager = manager;
+            this.targets = targets;
+        }
+    }
+}
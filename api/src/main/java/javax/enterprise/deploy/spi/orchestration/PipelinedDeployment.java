@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.orchestration;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import javax.enterprise.deploy.shared.ActionType;
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.shared.StateType;
+import javax.enterprise.deploy.shared.factories.DeploymentFactoryManager;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.status.BasicDeploymentStatus;
+import javax.enterprise.deploy.spi.status.DeploymentStatus;
+import javax.enterprise.deploy.spi.status.ProgressEvent;
+import javax.enterprise.deploy.spi.status.ProgressListener;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+
+/**
+ * Distributes a module archive and starts it, target by target, as one
+ * pipelined operation.
+ *
+ * <p> Instead of waiting for the whole distribution to complete before
+ * calling <code>start</code>, a root module is started as soon as its
+ * target reports a completed ProgressEvent for it, while the other
+ * targets are still receiving the archive.  Child modules of an
+ * application are started with their root and never on their own.
+ * Distributed modules for which the DeploymentManager reported no such
+ * event are started together when the distribution completes.
+ *
+ * <p> The returned ProgressObject re-delivers the events of the
+ * distribute and of every start and stop operation, with itself as the
+ * event source; each event keeps the CommandType of its phase.  It
+ * completes once every distributed module has been started.  If the
+ * distribution or any start fails, the modules already started are
+ * stopped again and the operation fails.  Stopping it lets operations
+ * in progress finish but issues no further start; the modules started
+ * so far keep running.  Its result TargetModuleIDs are the modules
+ * started and left running.
+ */
+public class PipelinedDeployment {
+
+    private final DeploymentManager manager;
+    private volatile Executor executor;
+
+    /**
+     * Creates a pipelined deployment to the targets of a
+     * DeploymentManager.
+     *
+     * @param manager the DeploymentManager of the targets.
+     */
+    public PipelinedDeployment(DeploymentManager manager) {
+        if (manager == null) {
+            throw new IllegalArgumentException("manager is null");
+        }
+        this.manager = manager;
+    }
+
+    /**
+     * Sets the executor that issues and tracks the operations.  The
+     * executor must be able to run one task per start operation besides
+     * the task tracking the distribution.  By default the
+     * DeploymentFactoryManager's asynchronous executor is used.
+     *
+     * @param executor the executor, or null for the default.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Distributes an archive file and starts it on every target.
+     *
+     * @param targetList the targets to deploy to.
+     * @param moduleArchive The file name of the application archive
+     *                      to be distributed.
+     * @param deploymentPlan The XML file containing the runtime
+     *                       configuration information associated with
+     *                       this application archive.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the whole operation.
+     */
+    public ProgressObject distributeAndStart(final Target[] targetList,
+            final File moduleArchive, final File deploymentPlan) {
+        return run(new Distribution() {
+            public ProgressObject distribute() {
+                return manager.distribute(targetList, moduleArchive,
+                        deploymentPlan);
+            }
+        });
+    }
+
+    /**
+     * Distributes an archive read from a stream and starts it on every
+     * target.  The streams are not closed.
+     *
+     * @param targetList the targets to deploy to.
+     * @param type the module type of the archive.
+     * @param moduleArchive The input stream containing the application
+     *                      archive to be distributed.
+     * @param deploymentPlan The input stream containing the deployment
+     *                       configuration information associated with
+     *                       this application archive.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the whole operation.
+     */
+    public ProgressObject distributeAndStart(final Target[] targetList,
+            final ModuleType type, final InputStream moduleArchive,
+            final InputStream deploymentPlan) {
+        return run(new Distribution() {
+            public ProgressObject distribute() {
+                return manager.distribute(targetList, type, moduleArchive,
+                        deploymentPlan);
+            }
+        });
+    }
+
+    private ProgressObject run(final Distribution distribution) {
+        Executor exec = executor;
+        if (exec == null) {
+            exec = DeploymentFactoryManager.getInstance().getAsyncExecutor();
+        }
+        final Pipeline pipeline = new Pipeline(exec);
+        exec.execute(new Runnable() {
+            public void run() {
+                pipeline.run(distribution);
+            }
+        });
+        return pipeline.progress;
+    }
+
+    private interface Distribution {
+        ProgressObject distribute();
+    }
+
+    /**
+     * The state of one distributeAndStart operation.
+     */
+    private final class Pipeline {
+        final RolloutProgressObject progress =
+                new RolloutProgressObject(CommandType.DISTRIBUTE);
+        private final Executor executor;
+        private final Set<String> started = new HashSet<String>();
+        private final List<FutureTask<Boolean>> starts =
+                new ArrayList<FutureTask<Boolean>>();
+        // The modules the start operations reported as started.
+        private final List<TargetModuleID> running =
+                new ArrayList<TargetModuleID>();
+        private boolean distributed;
+
+        Pipeline(Executor executor) {
+            this.executor = executor;
+        }
+
+        void run(Distribution distribution) {
+            boolean ok = false;
+            int expected = 0;
+            try {
+                ProgressObject po = distribution.distribute();
+                ProgressListener pipe = new ProgressListener() {
+                    public void handleProgressEvent(ProgressEvent event) {
+                        progress.report(event.getTargetModuleID(),
+                                event.getDeploymentStatus());
+                        TargetModuleID id = event.getTargetModuleID();
+                        if (id != null && id.getParentTargetModuleID() == null
+                                && event.getDeploymentStatus().isCompleted()) {
+                            start(new TargetModuleID[] {id});
+                        }
+                    }
+                };
+                po.addProgressListener(pipe);
+                DeploymentStatus status;
+                try {
+                    status = ProgressWaiter.await(po);
+                } finally {
+                    po.removeProgressListener(pipe);
+                }
+                ok = status.isCompleted();
+                TargetModuleID[] results = po.getResultTargetModuleIDs();
+                if (ok && results != null) {
+                    for (int i = 0; i < results.length; i++) {
+                        if (results[i].getParentTargetModuleID() == null) {
+                            expected++;
+                        }
+                    }
+                    start(results);
+                }
+            } catch (RuntimeException e) {
+                progress.report(null, status(StateType.FAILED,
+                        CommandType.DISTRIBUTE, e.toString()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<FutureTask<Boolean>> issued;
+            synchronized (this) {
+                distributed = true;
+                issued = new ArrayList<FutureTask<Boolean>>(starts);
+            }
+            for (FutureTask<Boolean> task : issued) {
+                try {
+                    ok &= task.get().booleanValue();
+                } catch (ExecutionException e) {
+                    ok = false;
+                } catch (CancellationException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    ok = false;
+                    break;
+                }
+            }
+            TargetModuleID[] up;
+            synchronized (this) {
+                up = running.toArray(new TargetModuleID[running.size()]);
+            }
+            boolean stopped = progress.isStopped();
+            boolean failed = !ok || (up.length < expected && !stopped);
+            String message;
+            if (failed && up.length > 0) {
+                stopStarted(up);
+                message = up.length + " started modules stopped";
+            } else {
+                progress.addResultTargetModuleIDs(up);
+                message = up.length + " modules started";
+            }
+            progress.fireProgressEvent(null, status(
+                    failed || stopped ? StateType.FAILED
+                            : StateType.COMPLETED,
+                    CommandType.START, message));
+        }
+
+        /**
+         * Stops the modules started before the operation failed.
+         */
+        private void stopStarted(TargetModuleID[] ids) {
+            try {
+                ProgressObject po = manager.stop(ids);
+                ProgressListener forwarder = progress.forwardFrom(po);
+                try {
+                    ProgressWaiter.await(po);
+                } finally {
+                    po.removeProgressListener(forwarder);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                progress.report(null, status(StateType.FAILED,
+                        CommandType.STOP, e.toString()));
+            }
+        }
+
+        /**
+         * Issues a start for the root modules not started yet.
+         */
+        void start(TargetModuleID[] ids) {
+            final List<TargetModuleID> fresh = new ArrayList<TargetModuleID>();
+            FutureTask<Boolean> task;
+            synchronized (this) {
+                if (distributed || progress.isStopped()) {
+                    return;
+                }
+                for (int i = 0; i < ids.length; i++) {
+                    if (ids[i].getParentTargetModuleID() == null
+                            && started.add(key(ids[i]))) {
+                        fresh.add(ids[i]);
+                    }
+                }
+                if (fresh.isEmpty()) {
+                    return;
+                }
+                task = new FutureTask<Boolean>(new Callable<Boolean>() {
+                    public Boolean call() {
+                        return Boolean.valueOf(runStart(fresh.toArray(
+                                new TargetModuleID[fresh.size()])));
+                    }
+                });
+                starts.add(task);
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // The task will never run; cancelling it lets run() see
+                // the start as failed instead of waiting for it.
+                task.cancel(false);
+                progress.report(null, status(StateType.FAILED,
+                        CommandType.START, e.toString()));
+            }
+        }
+
+        private boolean runStart(TargetModuleID[] ids) {
+            try {
+                ProgressObject po = manager.start(ids);
+                ProgressListener forwarder = progress.forwardFrom(po);
+                DeploymentStatus status;
+                try {
+                    status = ProgressWaiter.await(po);
+                } finally {
+                    po.removeProgressListener(forwarder);
+                }
+                if (!status.isCompleted()) {
+                    return false;
+                }
+                TargetModuleID[] up = po.getResultTargetModuleIDs();
+                if (up != null) {
+                    synchronized (this) {
+                        running.addAll(Arrays.asList(up));
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (RuntimeException e) {
+                progress.report(null, status(StateType.FAILED,
+                        CommandType.START, e.toString()));
+                return false;
+            }
+        }
+    }
+
+    private static String key(TargetModuleID id) {
+        return id.getTarget().getName() + '\n' + id.getModuleID();
+    }
+
+    private static DeploymentStatus status(StateType state,
+            CommandType command, String message) {
+        return new BasicDeploymentStatus(state, command, ActionType.EXECUTE,
+                message);
+    }
+}
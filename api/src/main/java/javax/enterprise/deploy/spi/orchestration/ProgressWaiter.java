@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.orchestration;
+
+import javax.enterprise.deploy.spi.status.BasicDeploymentStatus;
+import javax.enterprise.deploy.spi.status.DeploymentStatus;
+import javax.enterprise.deploy.spi.status.ProgressEvent;
+import javax.enterprise.deploy.spi.status.ProgressListener;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+
+/**
+ * Waits for a ProgressObject to reach a terminal status.  The status is
+ * checked whenever the ProgressObject delivers an event and, for
+ * implementations that do not report their final status through an
+ * event, at a regular interval.
+ */
+final class ProgressWaiter {
+
+    private static final long RECHECK_MILLIS = 1000L;
+
+    private ProgressWaiter() {
+    }
+
+    /**
+     * Blocks until the ProgressObject's status is completed, failed or
+     * released.
+     *
+     * @return the terminal status.
+     */
+    static DeploymentStatus await(ProgressObject po)
+            throws InterruptedException {
+        final Object lock = new Object();
+        ProgressListener listener = new ProgressListener() {
+            public void handleProgressEvent(ProgressEvent event) {
+                synchronized (lock) {
+                    lock.notifyAll();
+                }
+            }
+        };
+        po.addProgressListener(listener);
+        try {
+            synchronized (lock) {
+                while (true) {
+                    DeploymentStatus status = po.getDeploymentStatus();
+                    if (BasicDeploymentStatus.isTerminal(status)) {
+                        return status;
+                    }
+                    lock.wait(RECHECK_MILLIS);
+                }
+            }
+        } finally {
+            po.removeProgressListener(listener);
+        }
+    }
+}
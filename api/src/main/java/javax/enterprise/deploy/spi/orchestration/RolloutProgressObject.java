@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.orchestration;
+
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.status.DeploymentStatus;
+import javax.enterprise.deploy.spi.status.ProgressEvent;
+import javax.enterprise.deploy.spi.status.ProgressListener;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+import javax.enterprise.deploy.spi.status.ProgressObjectSupport;
+
+/**
+ * The single ProgressObject reported for an operation that spans several
+ * DeploymentManager operations.  Events of the underlying ProgressObjects
+ * are re-delivered with this object as their source; stop prevents
+ * operations that have not been issued yet from being issued.
+ */
+class RolloutProgressObject extends ProgressObjectSupport {
+
+    private volatile boolean stopped;
+
+    RolloutProgressObject(CommandType command) {
+        super(command);
+    }
+
+    public boolean isStopSupported() {
+        return true;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Delivers an event to the listeners without changing the status.
+     */
+    void report(TargetModuleID id, DeploymentStatus status) {
+        if (hasProgressListeners()) {
+            deliver(new ProgressEvent(this, id, status));
+        }
+    }
+
+    /**
+     * Re-delivers the events of an underlying ProgressObject to the
+     * listeners of this one without changing its status.
+     *
+     * @return the forwarding listener, to be removed when done.
+     */
+    ProgressListener forwardFrom(ProgressObject po) {
+        ProgressListener forwarder = new ProgressListener() {
+            public void handleProgressEvent(ProgressEvent event) {
+                report(event.getTargetModuleID(),
+                        event.getDeploymentStatus());
+            }
+        };
+        po.addProgressListener(forwarder);
+        return forwarder;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.status;
+
+import javax.enterprise.deploy.shared.ActionType;
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.shared.StateType;
+
+/**
+ * An immutable DeploymentStatus for use by DeploymentManager
+ * implementations and tools that report progress of their own.
+ *
+ * <p> Statuses without a message are shared: {@link #valueOf} returns
+ * one canonical instance per combination of state, command and action,
+ * so reporting them frequently allocates nothing.
+ *
+ * @see ProgressObjectSupport
+ */
+public class BasicDeploymentStatus implements DeploymentStatus
+{
+   private static final StateType[] STATES = {
+      StateType.RUNNING, StateType.COMPLETED, StateType.FAILED,
+      StateType.RELEASED
+   };
+   private static final CommandType[] COMMANDS = {
+      CommandType.DISTRIBUTE, CommandType.START, CommandType.STOP,
+      CommandType.UNDEPLOY, CommandType.REDEPLOY
+   };
+   private static final ActionType[] ACTIONS = {
+      ActionType.EXECUTE, ActionType.CANCEL, ActionType.STOP
+   };
+   private static final BasicDeploymentStatus[] CANONICAL =
+         new BasicDeploymentStatus[
+               STATES.length * COMMANDS.length * ACTIONS.length];
+
+   static {
+      for (int s = 0; s < STATES.length; s++) {
+         for (int c = 0; c < COMMANDS.length; c++) {
+            for (int a = 0; a < ACTIONS.length; a++) {
+               CANONICAL[(s * COMMANDS.length + c) * ACTIONS.length + a] =
+                     new BasicDeploymentStatus(STATES[s], COMMANDS[c],
+                           ACTIONS[a], null);
+            }
+         }
+      }
+   }
+
+   private final StateType state;
+   private final CommandType command;
+   private final ActionType action;
+   private final String message;
+
+   /**
+    * Creates a new deployment status.
+    *
+    * @param state the state of the operation.
+    * @param command the command being processed.
+    * @param action the action being performed.
+    * @param message additional information about the status, or null.
+    */
+   public BasicDeploymentStatus(StateType state, CommandType command,
+             ActionType action, String message)
+   {
+      this.state = state;
+      this.command = command;
+      this.action = action;
+      this.message = message;
+   }
+
+   /**
+    * Returns the shared status without a message for a state, command
+    * and action.  Values defined outside this API get a new status.
+    *
+    * @param state the state of the operation.
+    * @param command the command being processed.
+    * @param action the action being performed.
+    * @return the status.
+    */
+   public static BasicDeploymentStatus valueOf(StateType state,
+         CommandType command, ActionType action)
+   {
+      int s = state.getValue();
+      int c = command.getValue();
+      int a = action.getValue();
+      if (s < 0 || s >= STATES.length || STATES[s] != state
+            || c < 0 || c >= COMMANDS.length || COMMANDS[c] != command
+            || a < 0 || a >= ACTIONS.length || ACTIONS[a] != action) {
+         return new BasicDeploymentStatus(state, command, action, null);
+      }
+      return CANONICAL[(s * COMMANDS.length + c) * ACTIONS.length + a];
+   }
+
+   public StateType getState()
+   {
+      return state;
+   }
+
+   public CommandType getCommand()
+   {
+      return command;
+   }
+
+   public ActionType getAction()
+   {
+      return action;
+   }
+
+   public String getMessage()
+   {
+      return message;
+   }
+
+   public boolean isCompleted()
+   {
+      return state == StateType.COMPLETED;
+   }
+
+   public boolean isFailed()
+   {
+      return state == StateType.FAILED;
+   }
+
+   public boolean isRunning()
+   {
+      return state == StateType.RUNNING;
+   }
+
+   /**
+    * Tests whether a status reports the end of an operation, that is
+    * whether its state is completed, failed or released.
+    *
+    * @param status the status to test, may be null.
+    * @return true if the status is terminal.
+    */
+   public static boolean isTerminal(DeploymentStatus status)
+   {
+      if (status == null) {
+         return false;
+      }
+      StateType s = status.getState();
+      return s == StateType.COMPLETED || s == StateType.FAILED
+            || s == StateType.RELEASED;
+   }
+
+   public String toString()
+   {
+      return command + " " + action + " " + state
+            + (message == null ? "" : ": " + message);
+   }
+}
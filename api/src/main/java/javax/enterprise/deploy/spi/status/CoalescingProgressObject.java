@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.status;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.deploy.shared.factories.DeploymentFactoryManager;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.exceptions.OperationUnsupportedException;
+
+/**
+ * A view of a ProgressObject whose listeners receive at most one event
+ * per TargetModuleID per time window.
+ *
+ * <p> Events with a running status are held back for the window and
+ * replaced by later events of the same TargetModuleID, so that listeners
+ * receive only the latest status of each module; the held events are
+ * delivered in the order their modules first reported.  An event with a
+ * terminal status (completed, failed or released) is delivered at once,
+ * after the events held back before it; a held event of the same module
+ * is dropped, since the terminal status supersedes it.  Events without
+ * a TargetModuleID are coalesced with each other.
+ *
+ * <p> Events are re-delivered with this object as their source, in
+ * order and one at a time, but without holding the lock that events of
+ * the underlying ProgressObject take, so a slow listener does not block
+ * the thread reporting progress.  Once the underlying ProgressObject has
+ * reached a terminal status, this object stops listening to it.  All
+ * other methods delegate to the underlying ProgressObject.
+ */
+public class CoalescingProgressObject implements ProgressObject
+{
+   // The key of events without a TargetModuleID.
+   private static final Object NO_MODULE = new Object();
+
+   private final ProgressObject delegate;
+   private final long windowNanos;
+   private final List<ProgressListener> listeners =
+         new CopyOnWriteArrayList<ProgressListener>();
+   // Guarded by itself, like the fields below.
+   private final Map<Object, ProgressEvent> pending =
+         new LinkedHashMap<Object, ProgressEvent>();
+   // The events released from pending, in delivery order.
+   private final Queue<ProgressEvent> released =
+         new ArrayDeque<ProgressEvent>();
+   // Whether a thread is delivering the released events.
+   private boolean delivering;
+   private ScheduledFuture<?> scheduledFlush;
+   private final ProgressListener receiver;
+
+   /**
+    * Creates a coalescing view of a ProgressObject.
+    *
+    * @param po the underlying ProgressObject.
+    * @param window the time running events are held back.
+    * @param unit the unit of the window.
+    */
+   public CoalescingProgressObject(ProgressObject po, long window,
+         TimeUnit unit)
+   {
+      if (window < 0) {
+         throw new IllegalArgumentException("Negative window " + window);
+      }
+      this.delegate = po;
+      this.windowNanos = unit.toNanos(window);
+      this.receiver = new ProgressListener()
+      {
+         public void handleProgressEvent(ProgressEvent event)
+         {
+            receive(event);
+         }
+      };
+      po.addProgressListener(receiver);
+   }
+
+   public DeploymentStatus getDeploymentStatus()
+   {
+      return delegate.getDeploymentStatus();
+   }
+
+   public TargetModuleID[] getResultTargetModuleIDs()
+   {
+      return delegate.getResultTargetModuleIDs();
+   }
+
+   public ClientConfiguration getClientConfiguration(TargetModuleID id)
+   {
+      return delegate.getClientConfiguration(id);
+   }
+
+   public boolean isCancelSupported()
+   {
+      return delegate.isCancelSupported();
+   }
+
+   public void cancel() throws OperationUnsupportedException
+   {
+      delegate.cancel();
+   }
+
+   public boolean isStopSupported()
+   {
+      return delegate.isStopSupported();
+   }
+
+   public void stop() throws OperationUnsupportedException
+   {
+      delegate.stop();
+   }
+
+   public void addProgressListener(ProgressListener pol)
+   {
+      listeners.add(pol);
+   }
+
+   public void removeProgressListener(ProgressListener pol)
+   {
+      listeners.remove(pol);
+   }
+
+   /**
+    * Delivers the events held back at once.
+    */
+   public void flush()
+   {
+      boolean drain;
+      synchronized (pending) {
+         releasePending();
+         drain = claimDelivery();
+      }
+      if (drain) {
+         drain();
+      }
+   }
+
+   private void receive(ProgressEvent event)
+   {
+      Object key = event.getTargetModuleID();
+      if (key == null) {
+         key = NO_MODULE;
+      }
+      boolean terminal =
+            BasicDeploymentStatus.isTerminal(event.getDeploymentStatus());
+      if (terminal
+            && BasicDeploymentStatus.isTerminal(getDeploymentStatus())) {
+         delegate.removeProgressListener(receiver);
+      }
+      boolean drain;
+      synchronized (pending) {
+         if (terminal || windowNanos == 0) {
+            pending.remove(key);
+            releasePending();
+            released.add(event);
+            drain = claimDelivery();
+         } else {
+            boolean held = pending.containsKey(key);
+            pending.put(key, event);
+            if (!held && scheduledFlush == null) {
+               scheduleFlush();
+            }
+            drain = false;
+         }
+      }
+      if (drain) {
+         drain();
+      }
+   }
+
+   // Called with the pending map locked.
+   private void scheduleFlush()
+   {
+      // Listeners may be slow; the timer only hands the flush over.
+      scheduledFlush = ProgressTimer.EXECUTOR.schedule(new Runnable()
+      {
+         public void run()
+         {
+            DeploymentFactoryManager.getInstance().getAsyncExecutor()
+                  .execute(new Runnable()
+            {
+               public void run()
+               {
+                  flush();
+               }
+            });
+         }
+      }, windowNanos, TimeUnit.NANOSECONDS);
+   }
+
+   // Called with the pending map locked.
+   private void releasePending()
+   {
+      if (scheduledFlush != null) {
+         scheduledFlush.cancel(false);
+         scheduledFlush = null;
+      }
+      released.addAll(pending.values());
+      pending.clear();
+   }
+
+   /**
+    * Makes the calling thread the one delivering the released events,
+    * unless another thread already is.  Called with the pending map
+    * locked.
+    *
+    * @return true if the caller must drain the released events.
+    */
+   private boolean claimDelivery()
+   {
+      if (delivering || released.isEmpty()) {
+         return false;
+      }
+      delivering = true;
+      return true;
+   }
+
+   /**
+    * Delivers the released events until none is left, without holding
+    * the lock.
+    */
+   private void drain()
+   {
+      while (true) {
+         ProgressEvent event;
+         synchronized (pending) {
+            event = released.poll();
+            if (event == null) {
+               delivering = false;
+               return;
+            }
+         }
+         deliver(event);
+      }
+   }
+
+   /**
+    * Delivers an event of the underlying ProgressObject with this object
+    * as its source.
+    */
+   private void deliver(ProgressEvent event)
+   {
+      if (listeners.isEmpty()) {
+         return;
+      }
+      ProgressEvent copy = new ProgressEvent(this,
+            event.getTargetModuleID(), event.getDeploymentStatus());
+      for (ProgressListener listener : listeners) {
+         try {
+            listener.handleProgressEvent(copy);
+         } catch (RuntimeException e) {
+            // A failing listener must not break progress reporting.
+         }
+      }
+   }
+}
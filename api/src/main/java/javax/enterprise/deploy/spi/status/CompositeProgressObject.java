@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.status;
+
+import javax.enterprise.deploy.shared.ActionType;
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.shared.StateType;
+import javax.enterprise.deploy.spi.exceptions.OperationUnsupportedException;
+
+/**
+ * A ProgressObject that reports several ProgressObjects as one
+ * operation.  The events of every part are re-delivered with the
+ * composite as their source.  The composite completes when all parts
+ * have completed and fails when all parts have ended and at least one
+ * of them did not complete; its result TargetModuleIDs are those of all
+ * parts.  Cancel and stop are supported when every part supports them
+ * and are applied to every part.
+ */
+public class CompositeProgressObject extends ProgressObjectSupport
+{
+   private final ProgressObject[] parts;
+   private boolean finished;
+
+   /**
+    * Creates a ProgressObject reporting the given parts.
+    *
+    * @param command the command reported while the parts are running.
+    * @param parts the ProgressObjects of the underlying operations.
+    */
+   public CompositeProgressObject(CommandType command, ProgressObject[] parts)
+   {
+      super(command);
+      this.parts = parts.clone();
+      ProgressListener forwarder = new ProgressListener() {
+         public void handleProgressEvent(ProgressEvent event) {
+            if (hasProgressListeners()) {
+               deliver(new ProgressEvent(CompositeProgressObject.this,
+                     event.getTargetModuleID(),
+                     event.getDeploymentStatus()));
+            }
+            checkCompletion();
+         }
+      };
+      for (int i = 0; i < this.parts.length; i++) {
+         this.parts[i].addProgressListener(forwarder);
+      }
+      checkCompletion();
+   }
+
+   /**
+    * Returns the status of the composite, first checking whether all
+    * parts have ended in case a part did not report its final status
+    * through an event.
+    */
+   public DeploymentStatus getDeploymentStatus()
+   {
+      checkCompletion();
+      return super.getDeploymentStatus();
+   }
+
+   public boolean isCancelSupported()
+   {
+      for (int i = 0; i < parts.length; i++) {
+         if (!parts[i].isCancelSupported()) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   public void cancel() throws OperationUnsupportedException
+   {
+      for (int i = 0; i < parts.length; i++) {
+         parts[i].cancel();
+      }
+   }
+
+   public boolean isStopSupported()
+   {
+      for (int i = 0; i < parts.length; i++) {
+         if (!parts[i].isStopSupported()) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   public void stop() throws OperationUnsupportedException
+   {
+      for (int i = 0; i < parts.length; i++) {
+         parts[i].stop();
+      }
+   }
+
+   private void checkCompletion()
+   {
+      boolean failed = false;
+      CommandType command = null;
+      for (int i = 0; i < parts.length; i++) {
+         DeploymentStatus status = parts[i].getDeploymentStatus();
+         if (!BasicDeploymentStatus.isTerminal(status)) {
+            return;
+         }
+         failed |= !status.isCompleted();
+         command = status.getCommand();
+      }
+      synchronized (this) {
+         if (finished) {
+            return;
+         }
+         finished = true;
+      }
+      for (int i = 0; i < parts.length; i++) {
+         addResultTargetModuleIDs(parts[i].getResultTargetModuleIDs());
+      }
+      if (command == null) {
+         command = super.getDeploymentStatus().getCommand();
+      }
+      fireProgressEvent(null, new BasicDeploymentStatus(
+            failed ? StateType.FAILED : StateType.COMPLETED, command,
+            ActionType.EXECUTE, parts.length + " operations ended"));
+   }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.status;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.enterprise.deploy.shared.factories.DeploymentFactoryManager;
+
+/**
+ * Delivers ProgressEvents to listeners asynchronously, so that a slow
+ * listener does not hold up the thread reporting the progress of an
+ * operation.
+ *
+ * <p> Every listener has its own bounded queue, drained by at most one
+ * task at a time on the dispatcher's executor; by default that is the
+ * DeploymentFactoryManager's asynchronous executor, which uses virtual
+ * threads where the platform has them.  If the executor rejects the
+ * task, the queue is drained on the dispatching thread.  A listener
+ * therefore receives events one at a time and in the order they were
+ * dispatched, and in particular the events of each TargetModuleID in
+ * order.  A slow listener delays only its own events.
+ *
+ * <p> When a listener's queue is full, the overflow policy decides what
+ * happens to a new event.  Events with a terminal status (completed,
+ * failed or released) are never dropped and are queued even if the
+ * queue is full, so that a listener always learns how an operation
+ * ended.
+ *
+ * <p> A dispatcher keeps its own listeners; it serves one
+ * ProgressObject, typically through
+ * {@link ProgressObjectSupport#ProgressObjectSupport(
+ * javax.enterprise.deploy.shared.CommandType, ProgressEventDispatcher)}.
+ */
+public class ProgressEventDispatcher
+{
+   /**
+    * What to do with an event for a listener whose queue is full.
+    */
+   public enum OverflowPolicy
+   {
+      /** Drop the oldest queued event. */
+      DROP_OLDEST,
+      /**
+       * Replace the queued event of the same TargetModuleID, or drop the
+       * oldest queued event if there is none.
+       */
+      COALESCE,
+      /** Block the dispatching thread until the queue has room. */
+      BLOCK
+   }
+
+   // The key of events without a TargetModuleID when coalescing.
+   private static final Object NO_MODULE = new Object();
+   // Events delivered by one drain task before it yields its thread.
+   private static final int DRAIN_BATCH = 256;
+
+   private final int capacity;
+   private final OverflowPolicy policy;
+   private final Executor executor;
+   private final List<Subscriber> subscribers =
+         new CopyOnWriteArrayList<Subscriber>();
+   private final AtomicLong dropped = new AtomicLong();
+
+   /**
+    * Creates a dispatcher running on the DeploymentFactoryManager's
+    * asynchronous executor.
+    *
+    * @param capacity the number of events queued per listener.
+    * @param policy what to do when a queue is full.
+    */
+   public ProgressEventDispatcher(int capacity, OverflowPolicy policy)
+   {
+      this(capacity, policy,
+            DeploymentFactoryManager.getInstance().getAsyncExecutor());
+   }
+
+   /**
+    * Creates a dispatcher.
+    *
+    * @param capacity the number of events queued per listener.
+    * @param policy what to do when a queue is full.
+    * @param executor the executor delivering the events.
+    */
+   public ProgressEventDispatcher(int capacity, OverflowPolicy policy,
+         Executor executor)
+   {
+      if (capacity < 1) {
+         throw new IllegalArgumentException(
+               "capacity must be positive: " + capacity);
+      }
+      if (policy == null || executor == null) {
+         throw new IllegalArgumentException("policy and executor required");
+      }
+      this.capacity = capacity;
+      this.policy = policy;
+      this.executor = executor;
+   }
+
+   /**
+    * Adds a listener.  It receives the events dispatched from now on.
+    *
+    * @param pol the listener.
+    */
+   public void addProgressListener(ProgressListener pol)
+   {
+      subscribers.add(new Subscriber(pol));
+   }
+
+   /**
+    * Removes a listener.  Events queued for it are discarded.
+    *
+    * @param pol the listener.
+    */
+   public void removeProgressListener(ProgressListener pol)
+   {
+      for (Subscriber s : subscribers) {
+         if (s.listener == pol) {
+            subscribers.remove(s);
+            s.close();
+            return;
+         }
+      }
+   }
+
+   /**
+    * Tests whether any listener is registered.
+    *
+    * @return true if a listener is registered.
+    */
+   public boolean hasProgressListeners()
+   {
+      return !subscribers.isEmpty();
+   }
+
+   /**
+    * Queues an event for every listener.  With the BLOCK policy this
+    * waits for room in full queues; if the thread is interrupted while
+    * waiting, the event is dropped for the remaining listeners and the
+    * interrupt status is kept.
+    *
+    * @param event the event to deliver.
+    */
+   public void dispatch(ProgressEvent event)
+   {
+      for (Subscriber s : subscribers) {
+         if (!s.offer(event)) {
+            dropped.incrementAndGet();
+         }
+      }
+   }
+
+   /**
+    * Returns the number of events dropped or replaced because a queue
+    * was full.
+    *
+    * @return the number of events not delivered.
+    */
+   public long getDroppedEvents()
+   {
+      return dropped.get();
+   }
+
+   private static boolean isTerminal(ProgressEvent event)
+   {
+      return BasicDeploymentStatus.isTerminal(event.getDeploymentStatus());
+   }
+
+   private static Object key(ProgressEvent event)
+   {
+      Object id = event.getTargetModuleID();
+      return id == null ? NO_MODULE : id;
+   }
+
+   /**
+    * A queued event.  The event is cleared when it is delivered or
+    * dropped, and replaced when it is coalesced.
+    */
+   private static final class Slot extends AtomicReference<ProgressEvent>
+   {
+      private static final long serialVersionUID = 1L;
+
+      final boolean holdsPermit;
+
+      Slot(ProgressEvent event, boolean holdsPermit)
+      {
+         super(event);
+         this.holdsPermit = holdsPermit;
+      }
+   }
+
+   /**
+    * The queue and drain task of one listener.
+    */
+   private final class Subscriber implements Runnable
+   {
+      final ProgressListener listener;
+      private final ConcurrentLinkedQueue<Slot> queue =
+            new ConcurrentLinkedQueue<Slot>();
+      private final AtomicInteger size = new AtomicInteger();
+      private final AtomicBoolean scheduled = new AtomicBoolean();
+      private final ConcurrentHashMap<Object, Slot> latest;
+      private final Semaphore space;
+      private volatile boolean closed;
+
+      Subscriber(ProgressListener listener)
+      {
+         this.listener = listener;
+         this.latest = policy == OverflowPolicy.COALESCE
+               ? new ConcurrentHashMap<Object, Slot>() : null;
+         this.space = policy == OverflowPolicy.BLOCK
+               ? new Semaphore(capacity) : null;
+      }
+
+      /**
+       * Queues an event.
+       *
+       * @return false if the event or an older one was not delivered.
+       */
+      boolean offer(ProgressEvent event)
+      {
+         if (closed) {
+            return true;
+         }
+         boolean terminal = isTerminal(event);
+         boolean permit = false;
+         boolean lost = false;
+         if (space != null && !terminal) {
+            try {
+               space.acquire();
+               permit = true;
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return false;
+            }
+         } else if (!terminal && size.get() >= capacity) {
+            if (latest != null && coalesce(event)) {
+               schedule();
+               return false;
+            }
+            lost = dropOldest();
+         }
+         Slot slot = new Slot(event, permit);
+         size.incrementAndGet();
+         queue.add(slot);
+         if (latest != null) {
+            latest.put(key(event), slot);
+         }
+         schedule();
+         return !lost;
+      }
+
+      private boolean coalesce(ProgressEvent event)
+      {
+         Slot slot = latest.get(key(event));
+         if (slot == null) {
+            return false;
+         }
+         ProgressEvent queued = slot.get();
+         return queued != null && !isTerminal(queued)
+               && slot.compareAndSet(queued, event);
+      }
+
+      private boolean dropOldest()
+      {
+         for (Iterator<Slot> it = queue.iterator(); it.hasNext();) {
+            Slot slot = it.next();
+            ProgressEvent queued = slot.get();
+            if (queued != null && !isTerminal(queued)
+                  && slot.compareAndSet(queued, null)) {
+               taken(slot, queued);
+               return true;
+            }
+         }
+         return false;
+      }
+
+      private void taken(Slot slot, ProgressEvent event)
+      {
+         size.decrementAndGet();
+         if (latest != null) {
+            latest.remove(key(event), slot);
+         }
+         if (slot.holdsPermit) {
+            space.release();
+         }
+      }
+
+      private void schedule()
+      {
+         if (!closed && scheduled.compareAndSet(false, true)) {
+            try {
+               executor.execute(this);
+            } catch (RejectedExecutionException e) {
+               // Drain on this thread rather than leave the queue
+               // unscheduled; run clears the flag when it is done.
+               run();
+            }
+         }
+      }
+
+      public void run()
+      {
+         try {
+            for (int n = 0; n < DRAIN_BATCH && !closed;) {
+               Slot slot = queue.poll();
+               if (slot == null) {
+                  break;
+               }
+               ProgressEvent event = slot.getAndSet(null);
+               if (event == null) {
+                  // Dropped while queued.
+                  continue;
+               }
+               taken(slot, event);
+               n++;
+               try {
+                  listener.handleProgressEvent(event);
+               } catch (RuntimeException e) {
+                  // A failing listener must not break progress reporting.
+               }
+            }
+         } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+               schedule();
+            }
+         }
+      }
+
+      void close()
+      {
+         closed = true;
+         Slot slot;
+         while ((slot = queue.poll()) != null) {
+            ProgressEvent event = slot.getAndSet(null);
+            if (event != null) {
+               taken(slot, event);
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.status;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import javax.enterprise.deploy.shared.factories.DeploymentFactoryManager;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.exceptions.OperationFailedException;
+import javax.enterprise.deploy.spi.exceptions.OperationUnsupportedException;
+
+/**
+ * A CompletableFuture of the result TargetModuleIDs of a deployment
+ * operation, completed by the ProgressEvents of its ProgressObject
+ * instead of by polling its status.
+ *
+ * <p> The future completes with the result TargetModuleIDs when the
+ * operation completes, exceptionally with an
+ * {@link OperationFailedException} when it fails, and is cancelled when
+ * it is released.  An operation that ended before the future was created
+ * is handled as well.  The terminal status of an event that names no
+ * TargetModuleID is taken as the status of the operation even if the
+ * ProgressObject does not report it yet; for implementations that do not
+ * report their final status through an event, the status is also checked
+ * at a regular interval.
+ *
+ * <p> Cancelling the future cancels the operation if the ProgressObject
+ * supports it, and otherwise stops it.  A future whose operation supports
+ * neither cannot be cancelled.  A timeout set with
+ * {@link #withTimeout(long, TimeUnit)} does the same after completing
+ * the future with a TimeoutException, on a thread of the
+ * DeploymentFactoryManager's asynchronous executor.
+ */
+public class ProgressFuture extends CompletableFuture<TargetModuleID[]>
+{
+   private static final long RECHECK_MILLIS = 1000L;
+
+   private final ProgressObject progressObject;
+   private final ProgressListener listener;
+
+   private ProgressFuture(ProgressObject po)
+   {
+      this.progressObject = po;
+      this.listener = new ProgressListener()
+      {
+         public void handleProgressEvent(ProgressEvent event)
+         {
+            update(event.getTargetModuleID() == null
+                  ? event.getDeploymentStatus() : null);
+         }
+      };
+   }
+
+   /**
+    * Returns a future completed by the given operation.
+    *
+    * @param po the ProgressObject of the operation.
+    * @return the future.
+    */
+   public static ProgressFuture of(ProgressObject po)
+   {
+      ProgressFuture future = new ProgressFuture(po);
+      po.addProgressListener(future.listener);
+      // The operation may have ended before the listener was added.
+      future.update(null);
+      if (!future.isDone()) {
+         future.recheck();
+      }
+      return future;
+   }
+
+   /**
+    * Returns the ProgressObject of the operation.
+    *
+    * @return the ProgressObject.
+    */
+   public ProgressObject getProgressObject()
+   {
+      return progressObject;
+   }
+
+   /**
+    * Cancels the operation, or stops it if it cannot be cancelled, and
+    * cancels this future.
+    *
+    * @param mayInterruptIfRunning ignored.
+    * @return true if the future was cancelled; false if it had already
+    *         completed or the operation can neither be cancelled nor
+    *         stopped.
+    */
+   public boolean cancel(boolean mayInterruptIfRunning)
+   {
+      if (isDone() || !(progressObject.isCancelSupported()
+            || progressObject.isStopSupported())) {
+         return false;
+      }
+      if (!super.cancel(mayInterruptIfRunning)) {
+         return false;
+      }
+      interrupt();
+      return true;
+   }
+
+   /**
+    * Cancels or stops the operation if it has not ended within the given
+    * time, and completes this future with a TimeoutException.
+    *
+    * @param timeout the time to wait.
+    * @param unit the unit of the timeout.
+    * @return this future.
+    */
+   public ProgressFuture withTimeout(long timeout, TimeUnit unit)
+   {
+      if (isDone()) {
+         return this;
+      }
+      final ScheduledFuture<?> timer = ProgressTimer.EXECUTOR.schedule(
+            new Runnable()
+            {
+               public void run()
+               {
+                  if (completeExceptionally(new TimeoutException(
+                        progressObject.getDeploymentStatus().getCommand()
+                        + " did not end in time"))) {
+                     // cancel and stop may be slow; the timer only hands
+                     // them over.
+                     try {
+                        DeploymentFactoryManager.getInstance()
+                              .getAsyncExecutor().execute(new Runnable()
+                        {
+                           public void run()
+                           {
+                              interrupt();
+                           }
+                        });
+                     } catch (RejectedExecutionException e) {
+                        interrupt();
+                     }
+                  }
+               }
+            }, timeout, unit);
+      whenComplete(new BiConsumer<TargetModuleID[], Throwable>()
+      {
+         public void accept(TargetModuleID[] ids, Throwable t)
+         {
+            timer.cancel(false);
+         }
+      });
+      return this;
+   }
+
+   /**
+    * Checks the status of the operation periodically until the future
+    * completes.
+    */
+   private void recheck()
+   {
+      final ScheduledFuture<?> timer =
+            ProgressTimer.EXECUTOR.scheduleWithFixedDelay(new Runnable()
+            {
+               public void run()
+               {
+                  update(null);
+               }
+            }, RECHECK_MILLIS, RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+      whenComplete(new BiConsumer<TargetModuleID[], Throwable>()
+      {
+         public void accept(TargetModuleID[] ids, Throwable t)
+         {
+            timer.cancel(false);
+         }
+      });
+   }
+
+   /**
+    * Completes the future if the operation has ended.
+    *
+    * @param reported the status an event reported for the operation, or
+    *                 null to ask the ProgressObject.
+    */
+   private void update(DeploymentStatus reported)
+   {
+      DeploymentStatus status = BasicDeploymentStatus.isTerminal(reported)
+            ? reported : progressObject.getDeploymentStatus();
+      if (!BasicDeploymentStatus.isTerminal(status)) {
+         return;
+      }
+      progressObject.removeProgressListener(listener);
+      if (status.isCompleted()) {
+         TargetModuleID[] ids = progressObject.getResultTargetModuleIDs();
+         complete(ids == null ? new TargetModuleID[0] : ids);
+      } else if (status.isFailed()) {
+         completeExceptionally(new OperationFailedException(status));
+      } else {
+         completeExceptionally(new CancellationException(
+               status.getCommand() + " released"));
+      }
+   }
+
+   private void interrupt()
+   {
+      progressObject.removeProgressListener(listener);
+      try {
+         if (progressObject.isCancelSupported()) {
+            progressObject.cancel();
+         } else if (progressObject.isStopSupported()) {
+            progressObject.stop();
+         }
+      } catch (OperationUnsupportedException e) {
+         // The operation goes on; the future has ended regardless.
+      }
+   }
+}
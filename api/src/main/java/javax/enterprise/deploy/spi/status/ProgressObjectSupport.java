@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.enterprise.deploy.shared.ActionType;
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.shared.StateType;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.exceptions.OperationUnsupportedException;
+
+/**
+ * A thread safe ProgressObject implementation that keeps the current
+ * status, the result TargetModuleIDs and the registered listeners, and
+ * delivers ProgressEvents to the listeners.
+ *
+ * <p> Subclasses and tools report progress with
+ * {@link #fireProgressEvent(TargetModuleID, DeploymentStatus)}.  Once a
+ * terminal status (completed, failed or released) has been reported the
+ * status no longer changes.  Cancel and stop are not supported unless a
+ * subclass overrides the corresponding methods.
+ */
+public class ProgressObjectSupport implements ProgressObject
+{
+   private final List<ProgressListener> listeners =
+         new CopyOnWriteArrayList<ProgressListener>();
+   private final List<TargetModuleID> results =
+         new ArrayList<TargetModuleID>();
+   private final ProgressEventDispatcher dispatcher;
+   private volatile DeploymentStatus status;
+
+   /**
+    * Creates a ProgressObject for a command that is running.
+    *
+    * @param command the command whose progress is reported.
+    */
+   public ProgressObjectSupport(CommandType command)
+   {
+      this(command, null);
+   }
+
+   /**
+    * Creates a ProgressObject for a command that is running, whose
+    * listeners are kept and called by a dispatcher instead of on the
+    * thread reporting the progress.
+    *
+    * @param command the command whose progress is reported.
+    * @param dispatcher the dispatcher delivering the events, or null to
+    *                   deliver them on the calling thread.
+    */
+   public ProgressObjectSupport(CommandType command,
+         ProgressEventDispatcher dispatcher)
+   {
+      this.dispatcher = dispatcher;
+      this.status = BasicDeploymentStatus.valueOf(StateType.RUNNING,
+            command, ActionType.EXECUTE);
+   }
+
+   public DeploymentStatus getDeploymentStatus()
+   {
+      return status;
+   }
+
+   public TargetModuleID[] getResultTargetModuleIDs()
+   {
+      synchronized (results) {
+         return results.toArray(new TargetModuleID[results.size()]);
+      }
+   }
+
+   /**
+    * Adds TargetModuleIDs to the list returned by
+    * getResultTargetModuleIDs.
+    *
+    * @param ids the processed TargetModuleIDs, may be null.
+    */
+   public void addResultTargetModuleIDs(TargetModuleID[] ids)
+   {
+      if (ids == null) {
+         return;
+      }
+      synchronized (results) {
+         for (int i = 0; i < ids.length; i++) {
+            results.add(ids[i]);
+         }
+      }
+   }
+
+   public ClientConfiguration getClientConfiguration(TargetModuleID id)
+   {
+      return null;
+   }
+
+   public boolean isCancelSupported()
+   {
+      return false;
+   }
+
+   public void cancel() throws OperationUnsupportedException
+   {
+      throw new OperationUnsupportedException("cancel not supported");
+   }
+
+   public boolean isStopSupported()
+   {
+      return false;
+   }
+
+   public void stop() throws OperationUnsupportedException
+   {
+      throw new OperationUnsupportedException("stop not supported");
+   }
+
+   public void addProgressListener(ProgressListener pol)
+   {
+      if (dispatcher != null) {
+         dispatcher.addProgressListener(pol);
+      } else {
+         listeners.add(pol);
+      }
+   }
+
+   public void removeProgressListener(ProgressListener pol)
+   {
+      if (dispatcher != null) {
+         dispatcher.removeProgressListener(pol);
+      } else {
+         listeners.remove(pol);
+      }
+   }
+
+   /**
+    * Tests whether any listener is registered.  Code reporting progress
+    * at a high rate can use it to skip building statuses that nobody
+    * receives.
+    *
+    * @return true if a listener is registered.
+    */
+   public boolean hasProgressListeners()
+   {
+      return dispatcher != null ? dispatcher.hasProgressListeners()
+            : !listeners.isEmpty();
+   }
+
+   /**
+    * Records the status and delivers a ProgressEvent for it to every
+    * registered listener, on the calling thread unless the
+    * ProgressObject has a dispatcher.  The status of the
+    * ProgressObject is not changed once it is terminal, but the event is
+    * still delivered.  No event is created if no listener is
+    * registered.
+    *
+    * @param id the TargetModuleID the event refers to, may be null.
+    * @param sCode the status to report.
+    */
+   public void fireProgressEvent(TargetModuleID id, DeploymentStatus sCode)
+   {
+      synchronized (this) {
+         if (!BasicDeploymentStatus.isTerminal(status)) {
+            status = sCode;
+         }
+      }
+      if (hasProgressListeners()) {
+         deliver(new ProgressEvent(this, id, sCode));
+      }
+   }
+
+   /**
+    * Delivers an event to every registered listener, on the calling
+    * thread unless the ProgressObject has a dispatcher.  A listener that
+    * throws does not prevent delivery to the remaining listeners.
+    *
+    * @param event the event to deliver.
+    */
+   protected void deliver(ProgressEvent event)
+   {
+      if (dispatcher != null) {
+         dispatcher.dispatch(event);
+         return;
+      }
+      for (ProgressListener listener : listeners) {
+         try {
+            listener.handleProgressEvent(event);
+         } catch (RuntimeException e) {
+            // A failing listener must not break progress reporting.
+         }
+      }
+   }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.status;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The daemon thread that runs the timed actions of the ProgressObject
+ * tools of this package.  Actions must be short.
+ */
+final class ProgressTimer
+{
+   static final ScheduledThreadPoolExecutor EXECUTOR;
+
+   static {
+      EXECUTOR = new ScheduledThreadPoolExecutor(1, new ThreadFactory()
+      {
+         public Thread newThread(Runnable r)
+         {
+            Thread t = new Thread(r, "ProgressObject timer");
+            t.setDaemon(true);
+            return t;
+         }
+      });
+      EXECUTOR.setRemoveOnCancelPolicy(true);
+   }
+
+   private ProgressTimer()
+   {
+   }
+}
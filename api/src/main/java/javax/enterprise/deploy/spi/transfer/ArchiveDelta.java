@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.transfer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The entry level difference between two versions of a module archive,
+ * and the delta archive format that carries it to a target.
+ *
+ * <p> Entries are compared by CRC and size as recorded in the archives'
+ * central directories, which ZIP files always carry.  Entries whose CRC
+ * and size match are also compared by the SHA-256 digest of their
+ * content, so that a CRC collision cannot hide a change.
+ *
+ * <p> A rebuilt archive holds the same entries as the new archive, but
+ * not the same bytes: entries are recompressed and may be in a different
+ * order.  Archives are therefore identified by their
+ * {@link #manifestDigest(File) manifest digest}, the SHA-256 digest of
+ * the sorted names, CRCs and sizes of their entries, which a rebuilt
+ * archive shares with the archive it was rebuilt to.
+ *
+ * <p> A delta archive is a ZIP file whose first entry,
+ * {@link #INDEX_ENTRY}, is a UTF-8 text listing one instruction per
+ * line: <code>base</code> followed by the manifest digest of the base
+ * archive, <code>result</code> followed by the manifest digest of the new
+ * archive, and <code>remove</code> followed by the name of each removed
+ * entry.  The remaining entries of the delta archive are the added and
+ * changed entries of the new archive.
+ * {@link #apply(File, File, OutputStream)} rebuilds the new archive from
+ * the base archive and a delta archive, and checks its manifest digest.
+ *
+ * @see DeltaRedeployment
+ */
+public final class ArchiveDelta {
+
+    /**
+     * The name of the index entry of a delta archive.
+     */
+    public static final String INDEX_ENTRY = "META-INF/DEPLOYMENT-DELTA.txt";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<String> added;
+    private final List<String> changed;
+    private final List<String> removed;
+
+    private ArchiveDelta(List<String> added, List<String> changed,
+            List<String> removed) {
+        this.added = Collections.unmodifiableList(added);
+        this.changed = Collections.unmodifiableList(changed);
+        this.removed = Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * Computes the entries added, changed and removed between two
+     * versions of an archive.
+     *
+     * @param base the previous version of the archive.
+     * @param result the new version of the archive.
+     * @return the difference between the versions.
+     * @throws IOException if an archive could not be read.
+     */
+    public static ArchiveDelta compute(File base, File result)
+            throws IOException {
+        ZipFile baseZip = new ZipFile(base);
+        try {
+            ZipFile resultZip = new ZipFile(result);
+            try {
+                return compute(baseZip, resultZip);
+            } finally {
+                resultZip.close();
+            }
+        } finally {
+            baseZip.close();
+        }
+    }
+
+    private static ArchiveDelta compute(ZipFile base, ZipFile result)
+            throws IOException {
+        Map<String, ZipEntry> baseEntries = entries(base);
+        List<String> added = new ArrayList<String>();
+        List<String> changed = new ArrayList<String>();
+        for (Enumeration<? extends ZipEntry> e = result.entries();
+                e.hasMoreElements();) {
+            ZipEntry entry = e.nextElement();
+            ZipEntry previous = baseEntries.remove(entry.getName());
+            if (previous == null) {
+                added.add(entry.getName());
+            } else if (!sameContent(base, previous, result, entry)) {
+                changed.add(entry.getName());
+            }
+        }
+        return new ArchiveDelta(added, changed,
+                new ArrayList<String>(baseEntries.keySet()));
+    }
+
+    /**
+     * Returns the names of the entries only found in the new archive.
+     *
+     * @return the added entry names, in archive order.
+     */
+    public List<String> getAddedEntries() {
+        return added;
+    }
+
+    /**
+     * Returns the names of the entries whose content changed.
+     *
+     * @return the changed entry names, in archive order.
+     */
+    public List<String> getChangedEntries() {
+        return changed;
+    }
+
+    /**
+     * Returns the names of the entries only found in the base archive.
+     *
+     * @return the removed entry names, in archive order.
+     */
+    public List<String> getRemovedEntries() {
+        return removed;
+    }
+
+    /**
+     * Tests whether the archives have the same entries and contents.
+     *
+     * @return true if nothing was added, changed or removed.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * Returns the manifest digest of an archive: the SHA-256 digest of
+     * the names, CRCs and sizes of its entries, sorted by name.  Archives
+     * with the same entry contents have the same manifest digest whatever
+     * the order, compression and time stamps of their entries.
+     *
+     * @param archive the archive.
+     * @return the lower case hexadecimal manifest digest.
+     * @throws IOException if the archive could not be read.
+     */
+    public static String manifestDigest(File archive) throws IOException {
+        ZipFile zip = new ZipFile(archive);
+        try {
+            Map<String, long[]> manifest = new TreeMap<String, long[]>();
+            for (Enumeration<? extends ZipEntry> e = zip.entries();
+                    e.hasMoreElements();) {
+                ZipEntry entry = e.nextElement();
+                manifest.put(entry.getName(),
+                        new long[] {entry.getCrc(), entry.getSize()});
+            }
+            return manifestDigest(manifest);
+        } finally {
+            zip.close();
+        }
+    }
+
+    /**
+     * Writes the delta archive carrying this difference.
+     *
+     * @param result the new version of the archive the difference was
+     *               computed for.
+     * @param baseDigest the manifest digest of the base archive.
+     * @param resultDigest the manifest digest of the new archive.
+     * @param out the stream receiving the delta archive; it is not closed.
+     * @throws IOException if the delta archive could not be written.
+     */
+    public void write(File result, String baseDigest, String resultDigest,
+            OutputStream out) throws IOException {
+        ZipFile resultZip = new ZipFile(result);
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            zip.putNextEntry(new ZipEntry(INDEX_ENTRY));
+            StringBuilder index = new StringBuilder();
+            index.append("base ").append(baseDigest).append('\n');
+            index.append("result ").append(resultDigest).append('\n');
+            for (String name : removed) {
+                index.append("remove ").append(name).append('\n');
+            }
+            zip.write(index.toString().getBytes("UTF-8"));
+            zip.closeEntry();
+            Set<String> carried = new HashSet<String>(added);
+            carried.addAll(changed);
+            for (Enumeration<? extends ZipEntry> e = resultZip.entries();
+                    e.hasMoreElements();) {
+                ZipEntry entry = e.nextElement();
+                if (carried.contains(entry.getName())) {
+                    copy(resultZip, entry, zip, null);
+                }
+            }
+            zip.finish();
+        } finally {
+            resultZip.close();
+        }
+    }
+
+    /**
+     * Rebuilds the new version of an archive from its base version and a
+     * delta archive.  Entries keep the order of the base archive; added
+     * entries follow in the order of the delta archive.  The manifest
+     * digest of the rebuilt archive is checked against the result digest
+     * of the delta archive.
+     *
+     * @param base the base version of the archive.
+     * @param delta the delta archive.
+     * @param out the stream receiving the new archive; it is not closed.
+     * @throws IOException if an archive could not be read or written, if
+     *         the delta archive has no index, or if the rebuilt archive
+     *         does not have the result digest; what was written to out
+     *         must then be discarded.
+     */
+    public static void apply(File base, File delta, OutputStream out)
+            throws IOException {
+        ZipFile deltaZip = new ZipFile(delta);
+        try {
+            ZipEntry indexEntry = deltaZip.getEntry(INDEX_ENTRY);
+            if (indexEntry == null) {
+                throw new IOException(delta + " is not a delta archive");
+            }
+            Set<String> removedNames = new HashSet<String>();
+            String resultDigest = null;
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    deltaZip.getInputStream(indexEntry), "UTF-8"));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("remove ")) {
+                        removedNames.add(line.substring(7));
+                    } else if (line.startsWith("result ")) {
+                        resultDigest = line.substring(7);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            Map<String, ZipEntry> carried = entries(deltaZip);
+            carried.remove(INDEX_ENTRY);
+
+            if (resultDigest == null) {
+                throw new IOException(delta + " has no result digest");
+            }
+
+            Map<String, long[]> manifest = new TreeMap<String, long[]>();
+            ZipFile baseZip = new ZipFile(base);
+            try {
+                ZipOutputStream zip = new ZipOutputStream(out);
+                for (Enumeration<? extends ZipEntry> e = baseZip.entries();
+                        e.hasMoreElements();) {
+                    ZipEntry entry = e.nextElement();
+                    ZipEntry replacement = carried.remove(entry.getName());
+                    if (replacement != null) {
+                        copy(deltaZip, replacement, zip, manifest);
+                    } else if (!removedNames.contains(entry.getName())) {
+                        copy(baseZip, entry, zip, manifest);
+                    }
+                }
+                for (ZipEntry entry : carried.values()) {
+                    copy(deltaZip, entry, zip, manifest);
+                }
+                zip.finish();
+            } finally {
+                baseZip.close();
+            }
+            if (!resultDigest.equals(manifestDigest(manifest))) {
+                throw new IOException("The archive rebuilt from " + delta
+                        + " does not have the digest " + resultDigest);
+            }
+        } finally {
+            deltaZip.close();
+        }
+    }
+
+    private static Map<String, ZipEntry> entries(ZipFile zip) {
+        Map<String, ZipEntry> map = new LinkedHashMap<String, ZipEntry>();
+        for (Enumeration<? extends ZipEntry> e = zip.entries();
+                e.hasMoreElements();) {
+            ZipEntry entry = e.nextElement();
+            map.put(entry.getName(), entry);
+        }
+        return map;
+    }
+
+    // Central directory entries always carry the CRC and size, which
+    // settle most comparisons without reading the entries.
+    private static boolean sameContent(ZipFile baseZip, ZipEntry base,
+            ZipFile resultZip, ZipEntry result) throws IOException {
+        return base.getSize() == result.getSize()
+                && base.getCrc() == result.getCrc()
+                && MessageDigest.isEqual(digest(baseZip, base),
+                        digest(resultZip, result));
+    }
+
+    private static byte[] digest(ZipFile zip, ZipEntry entry)
+            throws IOException {
+        MessageDigest md = ArchiveStore.newDigest();
+        InputStream in = zip.getInputStream(entry);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                md.update(buffer, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+        return md.digest();
+    }
+
+    private static String manifestDigest(Map<String, long[]> manifest)
+            throws IOException {
+        MessageDigest md = ArchiveStore.newDigest();
+        for (Map.Entry<String, long[]> e : manifest.entrySet()) {
+            // NUL cannot occur in entry names.
+            md.update((e.getKey() + '\0' + Long.toHexString(e.getValue()[0])
+                    + ' ' + e.getValue()[1] + '\n').getBytes("UTF-8"));
+        }
+        return ArchiveStore.toHex(md.digest());
+    }
+
+    /**
+     * Copies an entry, keeping its name, time, comment and compression
+     * method, and adds the CRC and size of the data copied to a
+     * manifest if one is given.
+     */
+    private static void copy(ZipFile from, ZipEntry entry,
+            ZipOutputStream to, Map<String, long[]> manifest)
+            throws IOException {
+        ZipEntry copy = new ZipEntry(entry.getName());
+        copy.setTime(entry.getTime());
+        copy.setComment(entry.getComment());
+        copy.setExtra(entry.getExtra());
+        byte[] stored = null;
+        if (entry.getMethod() == ZipEntry.STORED) {
+            // STORED entries need their size and CRC up front.
+            stored = readFully(from, entry);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            copy.setMethod(ZipEntry.STORED);
+            copy.setSize(stored.length);
+            copy.setCompressedSize(stored.length);
+            copy.setCrc(crc.getValue());
+        }
+        to.putNextEntry(copy);
+        CRC32 crc = new CRC32();
+        long size = 0;
+        if (stored != null) {
+            to.write(stored);
+            crc.update(stored);
+            size = stored.length;
+        } else {
+            InputStream in = from.getInputStream(entry);
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    to.write(buffer, 0, n);
+                    crc.update(buffer, 0, n);
+                    size += n;
+                }
+            } finally {
+                in.close();
+            }
+        }
+        to.closeEntry();
+        if (manifest != null) {
+            manifest.put(entry.getName(), new long[] {crc.getValue(), size});
+        }
+    }
+
+    private static byte[] readFully(ZipFile zip, ZipEntry entry)
+            throws IOException {
+        InputStream in = zip.getInputStream(entry);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
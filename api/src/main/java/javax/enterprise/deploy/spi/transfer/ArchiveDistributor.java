@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.transfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.status.BasicDeploymentStatus;
+import javax.enterprise.deploy.spi.status.CompositeProgressObject;
+import javax.enterprise.deploy.spi.status.ProgressEvent;
+import javax.enterprise.deploy.spi.status.ProgressListener;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+
+/**
+ * The ArchiveDistributor distributes and redeploys module archives
+ * through a DeploymentManager, sending an archive by digest to every
+ * target that already holds it.
+ *
+ * <p> When the DeploymentManager implements
+ * {@link ContentAddressedDistribution}, the targets are asked whether
+ * they hold the archive.  Those that do receive only its digest; the
+ * others receive the full archive through the standard DeploymentManager
+ * methods.  When both kinds of target are involved the returned
+ * ProgressObject reports both operations as one.  A DeploymentManager
+ * that does not implement the extension always receives the full
+ * archive.
+ *
+ * <p> When the DeploymentManager implements {@link DeltaRedeployment},
+ * modules whose previous archive is in the ArchiveStore are redeployed
+ * from a delta archive carrying only the entries that changed since;
+ * modules whose target does not accept the delta fall back to a redeploy
+ * by digest or of the full archive.  The ArchiveStore records the
+ * archive every module was successfully deployed from, and keeps a copy
+ * of each archive sent to such a DeploymentManager to serve as the next
+ * delta base.
+ *
+ * <p> Archives given as streams are spooled, so they are read only once
+ * whatever the targets hold: into the ArchiveStore when the
+ * DeploymentManager implements DeltaRedeployment and the archive may
+ * serve as a delta base, and otherwise into a temporary file deleted
+ * when the operation ends.  The stream opened on the spooled archive for
+ * a full transfer is closed when the operation ends.
+ */
+public class ArchiveDistributor {
+
+    private final ArchiveStore store;
+
+    /**
+     * Creates a distributor using the given client-side store.
+     *
+     * @param store the store used to digest and keep archives.
+     */
+    public ArchiveDistributor(ArchiveStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("store is null");
+        }
+        this.store = store;
+    }
+
+    /**
+     * Distributes an archive file, by digest where possible.
+     *
+     * @param manager the DeploymentManager of the targets.
+     * @param targetList the targets to distribute to.
+     * @param type the module type of the archive, or null to let the
+     *             targets determine it.
+     * @param moduleArchive the archive file.
+     * @param deploymentPlan the deployment plan file, or null.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the distribution process.
+     * @throws IOException if the archive or plan could not be read.
+     */
+    public ProgressObject distribute(DeploymentManager manager,
+            Target[] targetList, ModuleType type, File moduleArchive,
+            File deploymentPlan) throws IOException {
+        String digest = manager instanceof DeltaRedeployment
+                ? store.store(moduleArchive) : store.digest(moduleArchive);
+        if (!(manager instanceof ContentAddressedDistribution)) {
+            return record(manager.distribute(targetList, moduleArchive,
+                    deploymentPlan), digest);
+        }
+        ContentAddressedDistribution cad =
+                (ContentAddressedDistribution) manager;
+        byte[] plan = read(deploymentPlan);
+        Target[] holding = holding(cad, targetList, digest);
+        Target[] missing = without(targetList, holding);
+        List<ProgressObject> parts = new ArrayList<ProgressObject>(2);
+        if (holding.length > 0) {
+            parts.add(record(cad.distributeStored(holding, type, digest,
+                    stream(plan)), digest));
+        }
+        if (missing.length > 0) {
+            parts.add(record(manager.distribute(missing, moduleArchive,
+                    deploymentPlan), digest));
+        }
+        return combine(CommandType.DISTRIBUTE, parts);
+    }
+
+    /**
+     * Distributes an archive read from a stream, by digest where
+     * possible.  The streams are read to their end but not closed.
+     *
+     * @param manager the DeploymentManager of the targets.
+     * @param targetList the targets to distribute to.
+     * @param type the module type of the archive.
+     * @param moduleArchive the archive bytes.
+     * @param deploymentPlan the deployment plan, or null.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the distribution process.
+     * @throws IOException if the archive or plan could not be read.
+     */
+    public ProgressObject distribute(DeploymentManager manager,
+            Target[] targetList, ModuleType type, InputStream moduleArchive,
+            InputStream deploymentPlan) throws IOException {
+        if (manager instanceof DeltaRedeployment) {
+            String digest = store.store(moduleArchive);
+            return distribute(manager, targetList, type,
+                    store.getArchive(digest), digest, read(deploymentPlan));
+        }
+        final File archive = File.createTempFile("archive", ".tmp");
+        boolean sent = false;
+        try {
+            String digest;
+            OutputStream out = new FileOutputStream(archive);
+            try {
+                digest = ArchiveStore.copy(moduleArchive, out);
+            } finally {
+                out.close();
+            }
+            ProgressObject po = distribute(manager, targetList, type,
+                    archive, digest, read(deploymentPlan));
+            sent = true;
+            whenDone(po, new Runnable() {
+                public void run() {
+                    archive.delete();
+                }
+            });
+            return po;
+        } finally {
+            if (!sent) {
+                archive.delete();
+            }
+        }
+    }
+
+    /**
+     * Distributes a spooled archive, by digest where possible.
+     */
+    private ProgressObject distribute(DeploymentManager manager,
+            Target[] targetList, ModuleType type, File archive,
+            String digest, byte[] plan) throws IOException {
+        if (!(manager instanceof ContentAddressedDistribution)) {
+            return record(distributeFull(manager, targetList, type, archive,
+                    plan), digest);
+        }
+        ContentAddressedDistribution cad =
+                (ContentAddressedDistribution) manager;
+        Target[] holding = holding(cad, targetList, digest);
+        Target[] missing = without(targetList, holding);
+        List<ProgressObject> parts = new ArrayList<ProgressObject>(2);
+        if (holding.length > 0) {
+            parts.add(record(cad.distributeStored(holding, type, digest,
+                    stream(plan)), digest));
+        }
+        if (missing.length > 0) {
+            parts.add(record(distributeFull(manager, missing, type, archive,
+                    plan), digest));
+        }
+        return combine(CommandType.DISTRIBUTE, parts);
+    }
+
+    /**
+     * Redeploys modules from an archive file, by delta or by digest where
+     * possible.
+     *
+     * @param manager the DeploymentManager of the modules.
+     * @param moduleIDList the root modules to be updated.
+     * @param moduleArchive the archive file.
+     * @param deploymentPlan the deployment plan file, or null.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the redeploy operation.
+     * @throws IOException if an archive or the plan could not be read.
+     */
+    public ProgressObject redeploy(DeploymentManager manager,
+            TargetModuleID[] moduleIDList, File moduleArchive,
+            File deploymentPlan) throws IOException {
+        String digest = store.digest(moduleArchive);
+        byte[] plan = read(deploymentPlan);
+        List<TargetModuleID> remaining =
+                new ArrayList<TargetModuleID>(Arrays.asList(moduleIDList));
+        List<ProgressObject> parts = new ArrayList<ProgressObject>(3);
+        if (manager instanceof DeltaRedeployment) {
+            store.store(moduleArchive);
+            redeployDeltas((DeltaRedeployment) manager, remaining,
+                    moduleArchive, digest, plan, parts);
+        }
+        if (!remaining.isEmpty()
+                && manager instanceof ContentAddressedDistribution) {
+            ContentAddressedDistribution cad =
+                    (ContentAddressedDistribution) manager;
+            Target[] targets = new Target[remaining.size()];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = remaining.get(i).getTarget();
+            }
+            Set<Target> holding = new HashSet<Target>(Arrays.asList(
+                    holding(cad, targets, digest)));
+            List<TargetModuleID> stored = new ArrayList<TargetModuleID>();
+            for (int i = 0; i < targets.length; i++) {
+                if (holding.contains(targets[i])) {
+                    stored.add(remaining.get(i));
+                }
+            }
+            if (!stored.isEmpty()) {
+                parts.add(record(cad.redeployStored(
+                        stored.toArray(new TargetModuleID[stored.size()]),
+                        digest, stream(plan)), digest));
+                remaining.removeAll(stored);
+            }
+        }
+        if (!remaining.isEmpty()) {
+            parts.add(record(manager.redeploy(
+                    remaining.toArray(new TargetModuleID[remaining.size()]),
+                    moduleArchive, deploymentPlan), digest));
+        }
+        return combine(CommandType.REDEPLOY, parts);
+    }
+
+    /**
+     * Redeploys from a delta archive every module whose previous archive
+     * is in the store and whose target accepts a delta against it.  The
+     * modules redeployed are removed from the remaining list.  A delta
+     * that is not smaller than the archive itself is not used.
+     *
+     * <p> The store records the digest of the stored copy of each
+     * module's archive.  A target that rebuilt its archive from a delta
+     * holds different bytes with the same entries, so bases and results
+     * are named to targets by their manifest digests.
+     */
+    private void redeployDeltas(DeltaRedeployment dr,
+            List<TargetModuleID> remaining, File moduleArchive,
+            String digest, byte[] plan, List<ProgressObject> parts)
+            throws IOException {
+        Map<String, List<TargetModuleID>> byBase =
+                new LinkedHashMap<String, List<TargetModuleID>>();
+        for (TargetModuleID id : remaining) {
+            String base = store.getDeployedArchive(id);
+            if (base != null && store.contains(base)) {
+                List<TargetModuleID> ids = byBase.get(base);
+                if (ids == null) {
+                    ids = new ArrayList<TargetModuleID>();
+                    byBase.put(base, ids);
+                }
+                ids.add(id);
+            }
+        }
+        String result = null;
+        for (Map.Entry<String, List<TargetModuleID>> e : byBase.entrySet()) {
+            String base = e.getKey();
+            List<TargetModuleID> ids = e.getValue();
+            String baseManifest =
+                    ArchiveDelta.manifestDigest(store.getArchive(base));
+            TargetModuleID[] accepting = dr.getModulesAcceptingDelta(
+                    ids.toArray(new TargetModuleID[ids.size()]),
+                    baseManifest);
+            if (accepting == null || accepting.length == 0) {
+                continue;
+            }
+            if (result == null) {
+                result = ArchiveDelta.manifestDigest(moduleArchive);
+            }
+            final File deltaFile = File.createTempFile("delta", ".zip");
+            boolean sent = false;
+            try {
+                ArchiveDelta delta = ArchiveDelta.compute(
+                        store.getArchive(base), moduleArchive);
+                OutputStream out = new FileOutputStream(deltaFile);
+                try {
+                    delta.write(moduleArchive, baseManifest, result, out);
+                } finally {
+                    out.close();
+                }
+                if (deltaFile.length() >= moduleArchive.length()) {
+                    continue;
+                }
+                final InputStream in = new FileInputStream(deltaFile);
+                ProgressObject po;
+                try {
+                    po = dr.redeployDelta(accepting, baseManifest, result,
+                            in, stream(plan));
+                } catch (RuntimeException ex) {
+                    in.close();
+                    throw ex;
+                }
+                sent = true;
+                whenDone(po, new Runnable() {
+                    public void run() {
+                        closeQuietly(in);
+                        deltaFile.delete();
+                    }
+                });
+                parts.add(record(po, digest));
+                remaining.removeAll(Arrays.asList(accepting));
+            } finally {
+                if (!sent) {
+                    deltaFile.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Distributes a stored archive in full.  The stream opened on the
+     * stored archive is closed when the operation ends.
+     */
+    static ProgressObject distributeFull(DeploymentManager manager,
+            Target[] targetList, ModuleType type, File archive, byte[] plan)
+            throws IOException {
+        final InputStream in = new FileInputStream(archive);
+        ProgressObject po;
+        try {
+            po = manager.distribute(targetList, type, in, stream(plan));
+        } catch (RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        whenDone(po, new Runnable() {
+            public void run() {
+                closeQuietly(in);
+            }
+        });
+        return po;
+    }
+
+    /**
+     * Records the archive digest for the result modules of an operation
+     * once it has completed.
+     *
+     * @return the ProgressObject.
+     */
+    private ProgressObject record(final ProgressObject po,
+            final String digest) {
+        whenDone(po, new Runnable() {
+            public void run() {
+                if (!po.getDeploymentStatus().isCompleted()) {
+                    return;
+                }
+                TargetModuleID[] ids = po.getResultTargetModuleIDs();
+                for (int i = 0; ids != null && i < ids.length; i++) {
+                    try {
+                        store.setDeployedArchive(ids[i], digest);
+                    } catch (IOException e) {
+                        // Without a record the next redeploy sends the
+                        // full archive.
+                    }
+                }
+            }
+        });
+        return po;
+    }
+
+    /**
+     * Runs an action once, when the operation has reached a terminal
+     * status.
+     */
+    static void whenDone(final ProgressObject po,
+            final Runnable action) {
+        final AtomicBoolean done = new AtomicBoolean();
+        ProgressListener listener = new ProgressListener() {
+            public void handleProgressEvent(ProgressEvent event) {
+                if (BasicDeploymentStatus.isTerminal(
+                        po.getDeploymentStatus())
+                        && done.compareAndSet(false, true)) {
+                    po.removeProgressListener(this);
+                    action.run();
+                }
+            }
+        };
+        po.addProgressListener(listener);
+        if (BasicDeploymentStatus.isTerminal(po.getDeploymentStatus())
+                && done.compareAndSet(false, true)) {
+            po.removeProgressListener(listener);
+            action.run();
+        }
+    }
+
+    private static Target[] holding(ContentAddressedDistribution cad,
+            Target[] targetList, String digest) {
+        Target[] holding = cad.getTargetsHoldingArchive(targetList, digest);
+        return holding == null ? new Target[0] : holding;
+    }
+
+    static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            // Nothing more can be done with the stream.
+        }
+    }
+
+    private static ProgressObject combine(CommandType command,
+            List<ProgressObject> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        return new CompositeProgressObject(command,
+                parts.toArray(new ProgressObject[parts.size()]));
+    }
+
+    private static Target[] without(Target[] all, Target[] excluded) {
+        Set<Target> skip = new HashSet<Target>(Arrays.asList(excluded));
+        List<Target> rest = new ArrayList<Target>();
+        for (int i = 0; i < all.length; i++) {
+            if (!skip.contains(all[i])) {
+                rest.add(all[i]);
+            }
+        }
+        return rest.toArray(new Target[rest.size()]);
+    }
+
+    static InputStream stream(byte[] bytes) {
+        return bytes == null ? null : new ByteArrayInputStream(bytes);
+    }
+
+    // Deployment plans are small; they are kept in memory so that they
+    // can be sent more than once.
+    static byte[] read(File file) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        InputStream in = new FileInputStream(file);
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    static byte[] read(InputStream in) throws IOException {
+        if (in == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,517 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.transfer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.enterprise.deploy.spi.TargetModuleID;
+
+/**
+ * A client-side, content-addressed store of module archives.  Archives
+ * are kept in a directory under the lower case hexadecimal SHA-256
+ * digest of their bytes, so an archive is stored once however often it
+ * is distributed.
+ *
+ * <p> The store is bounded by a number of archives and a total size.
+ * When it grows past either bound, the least recently used archives are
+ * removed, those no module is recorded as deployed from first; the
+ * modification time of a stored archive is updated whenever it is
+ * stored or returned again.  The archive just stored is never removed.
+ *
+ * <p> The store also remembers the digest of archive files it has
+ * hashed, keyed by path, length and modification time, so that
+ * distributing the same unchanged file again does not read it again.  A
+ * file hashed within {@link #MODIFIED_GRANULARITY_MILLIS} of its
+ * modification time could change again without a visible change of
+ * modification time, so its digest is not remembered.
+ *
+ * <p> Finally the store records, for each deployed module, the digest of
+ * the archive it was last deployed from.  These records are kept in the
+ * <code>refs</code> subdirectory and let a later redeploy send only the
+ * difference from that archive.
+ */
+public class ArchiveStore {
+    /**
+     * The default maximum number of stored archives.
+     */
+    public static final int DEFAULT_MAXIMUM_ARCHIVES = 64;
+
+    /**
+     * The default maximum total size of the stored archives, in bytes.
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 1L << 30;
+
+    /**
+     * The coarsest granularity of file modification times the store
+     * allows for, in milliseconds.
+     */
+    public static final long MODIFIED_GRANULARITY_MILLIS = 2000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REMEMBERED_DIGESTS = 256;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+    // Guarded by this store.
+    private int maximumArchives = DEFAULT_MAXIMUM_ARCHIVES;
+    private long maximumBytes = DEFAULT_MAXIMUM_BYTES;
+
+    private final Map<String, FileDigest> fileDigests =
+            new LinkedHashMap<String, FileDigest>(16, 0.75f, true) {
+        protected boolean removeEldestEntry(
+                Map.Entry<String, FileDigest> eldest) {
+            return size() > MAX_REMEMBERED_DIGESTS;
+        }
+    };
+
+    /**
+     * Creates a store backed by the given directory, which is created if
+     * it does not exist.
+     *
+     * @param directory the directory holding the stored archives.
+     * @throws IOException if the directory could not be created.
+     */
+    public ArchiveStore(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create archive store "
+                    + directory);
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the digest of an archive file, reading the file only if it
+     * changed since its digest was last computed.  A file modified too
+     * recently for its modification time to tell is read every time.
+     *
+     * @param archive the archive file.
+     * @return the lower case hexadecimal SHA-256 digest.
+     * @throws IOException if the file could not be read.
+     */
+    public String digest(File archive) throws IOException {
+        String key = archive.getCanonicalPath();
+        long length = archive.length();
+        long modified = archive.lastModified();
+        synchronized (fileDigests) {
+            FileDigest known = fileDigests.get(key);
+            if (known != null && known.length == length
+                    && known.modified == modified) {
+                return known.digest;
+            }
+        }
+        long hashed = System.currentTimeMillis();
+        InputStream in = new FileInputStream(archive);
+        String digest;
+        try {
+            digest = copy(in, null);
+        } finally {
+            in.close();
+        }
+        // A write within the granularity of the modification time could
+        // follow unnoticed, so only a file settled by then is remembered.
+        if (hashed - modified >= MODIFIED_GRANULARITY_MILLIS) {
+            synchronized (fileDigests) {
+                fileDigests.put(key,
+                        new FileDigest(length, modified, digest));
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * Copies an archive file into the store.
+     *
+     * @param archive the archive file.
+     * @return the digest under which the archive is stored.
+     * @throws IOException if the archive could not be stored.
+     */
+    public String store(File archive) throws IOException {
+        String digest = digest(archive);
+        if (!contains(digest)) {
+            InputStream in = new FileInputStream(archive);
+            try {
+                store(in);
+            } finally {
+                in.close();
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * Reads an archive to its end and adds it to the store.  The stream
+     * is not closed.
+     *
+     * @param archive the archive bytes.
+     * @return the digest under which the archive is stored.
+     * @throws IOException if the archive could not be stored.
+     */
+    public String store(InputStream archive) throws IOException {
+        File spool = File.createTempFile("archive", ".part", directory);
+        String digest;
+        try {
+            OutputStream out = new FileOutputStream(spool);
+            try {
+                digest = copy(archive, out);
+            } finally {
+                out.close();
+            }
+            File stored = new File(directory, digest);
+            if (stored.exists()) {
+                stored.setLastModified(System.currentTimeMillis());
+            } else if (!spool.renameTo(stored) && !stored.exists()) {
+                throw new IOException("Could not store archive " + digest);
+            } else {
+                trim(digest);
+            }
+        } finally {
+            spool.delete();
+        }
+        return digest;
+    }
+
+    /**
+     * Sets the maximum number of stored archives, removing the least
+     * recently used ones if there are more.
+     *
+     * @param maximumArchives the maximum number of archives.
+     * @throws IllegalArgumentException if maximumArchives is negative.
+     */
+    public void setMaximumArchives(int maximumArchives) {
+        if (maximumArchives < 0) {
+            throw new IllegalArgumentException(
+                    "maximumArchives < 0: " + maximumArchives);
+        }
+        synchronized (this) {
+            this.maximumArchives = maximumArchives;
+        }
+        trim(null);
+    }
+
+    /**
+     * Returns the maximum number of stored archives.
+     *
+     * @return the maximum number of archives.
+     */
+    public synchronized int getMaximumArchives() {
+        return maximumArchives;
+    }
+
+    /**
+     * Sets the maximum total size of the stored archives, removing the
+     * least recently used ones if they are larger.
+     *
+     * @param maximumBytes the maximum size in bytes.
+     * @throws IllegalArgumentException if maximumBytes is negative.
+     */
+    public void setMaximumBytes(long maximumBytes) {
+        if (maximumBytes < 0) {
+            throw new IllegalArgumentException(
+                    "maximumBytes < 0: " + maximumBytes);
+        }
+        synchronized (this) {
+            this.maximumBytes = maximumBytes;
+        }
+        trim(null);
+    }
+
+    /**
+     * Returns the maximum total size of the stored archives.
+     *
+     * @return the maximum size in bytes.
+     */
+    public synchronized long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    /**
+     * Removes the least recently used archives until the store is within
+     * its bounds, keeping those modules are deployed from as long as
+     * possible and never removing the archive with the given digest.
+     */
+    private synchronized void trim(String keep) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> archives = new ArrayList<File>(files.length);
+        long bytes = 0;
+        for (int i = 0; i < files.length; i++) {
+            if (isDigest(files[i].getName()) && files[i].isFile()) {
+                archives.add(files[i]);
+                bytes += files[i].length();
+            }
+        }
+        int count = archives.size();
+        if (count <= maximumArchives && bytes <= maximumBytes) {
+            return;
+        }
+        final Set<String> deployed = deployedArchives();
+        final Map<File, Long> used = new LinkedHashMap<File, Long>();
+        for (File f : archives) {
+            used.put(f, Long.valueOf(f.lastModified()));
+        }
+        Collections.sort(archives, new Comparator<File>() {
+            public int compare(File a, File b) {
+                boolean da = deployed.contains(a.getName());
+                boolean db = deployed.contains(b.getName());
+                if (da != db) {
+                    return da ? 1 : -1;
+                }
+                return used.get(a).compareTo(used.get(b));
+            }
+        });
+        for (File f : archives) {
+            if (count <= maximumArchives && bytes <= maximumBytes) {
+                break;
+            }
+            if (f.getName().equals(keep)) {
+                continue;
+            }
+            long length = f.length();
+            if (f.delete()) {
+                count--;
+                bytes -= length;
+            }
+        }
+    }
+
+    /**
+     * Returns the digests of the archives modules are recorded as
+     * deployed from.
+     */
+    private Set<String> deployedArchives() {
+        Set<String> digests = new HashSet<String>();
+        File[] refs = new File(directory, "refs").listFiles();
+        for (int i = 0; refs != null && i < refs.length; i++) {
+            String digest = readDigest(refs[i]);
+            if (digest != null) {
+                digests.add(digest);
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * Tests whether an archive is in the store.
+     *
+     * @param digest the digest of the archive.
+     * @return true if the archive is stored.
+     */
+    public boolean contains(String digest) {
+        return getArchive(digest) != null;
+    }
+
+    /**
+     * Returns the stored archive with the given digest, marking it as
+     * recently used.
+     *
+     * @param digest the digest of the archive.
+     * @return the archive file, or null if it is not stored.
+     */
+    public File getArchive(String digest) {
+        if (!isDigest(digest)) {
+            return null;
+        }
+        File stored = new File(directory, digest);
+        if (!stored.isFile()) {
+            return null;
+        }
+        stored.setLastModified(System.currentTimeMillis());
+        return stored;
+    }
+
+    /**
+     * Removes an archive from the store.
+     *
+     * @param digest the digest of the archive.
+     * @return true if the archive was stored and has been removed.
+     */
+    public boolean remove(String digest) {
+        File stored = getArchive(digest);
+        return stored != null && stored.delete();
+    }
+
+    /**
+     * Records the archive a module has been deployed from.
+     *
+     * @param id the deployed module.
+     * @param digest the digest of the archive, or null to forget the
+     *               module.
+     * @throws IOException if the record could not be written.
+     */
+    public void setDeployedArchive(TargetModuleID id, String digest)
+            throws IOException {
+        File ref = refFile(id);
+        if (digest == null) {
+            ref.delete();
+            return;
+        }
+        File refs = ref.getParentFile();
+        if (!refs.isDirectory() && !refs.mkdirs()) {
+            throw new IOException("Could not create " + refs);
+        }
+        File spool = File.createTempFile("ref", ".part", refs);
+        try {
+            OutputStream out = new FileOutputStream(spool);
+            try {
+                out.write(digest.getBytes("UTF-8"));
+            } finally {
+                out.close();
+            }
+            if (!spool.renameTo(ref)) {
+                ref.delete();
+                if (!spool.renameTo(ref)) {
+                    throw new IOException("Could not write " + ref);
+                }
+            }
+        } finally {
+            spool.delete();
+        }
+    }
+
+    /**
+     * Returns the digest of the archive a module was last recorded as
+     * deployed from.
+     *
+     * @param id the deployed module.
+     * @return the digest, or null if nothing is recorded for the module.
+     */
+    public String getDeployedArchive(TargetModuleID id) {
+        File ref = refFile(id);
+        return ref.isFile() ? readDigest(ref) : null;
+    }
+
+    private static String readDigest(File ref) {
+        try {
+            InputStream in = new FileInputStream(ref);
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+                byte[] buffer = new byte[128];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                }
+                String digest = out.toString("UTF-8");
+                return isDigest(digest) ? digest : null;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private File refFile(TargetModuleID id) {
+        String key = id.getTarget().getName() + '\n' + id.getModuleID();
+        MessageDigest md = newDigest();
+        try {
+            md.update(key.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e.toString());
+        }
+        return new File(new File(directory, "refs"), toHex(md.digest()));
+    }
+
+    /**
+     * Computes the digest of the bytes remaining in a stream.  The stream
+     * is not closed.
+     *
+     * @param in the bytes to digest.
+     * @return the lower case hexadecimal SHA-256 digest.
+     * @throws IOException if the stream could not be read.
+     */
+    public static String digest(InputStream in) throws IOException {
+        return copy(in, null);
+    }
+
+    /**
+     * Copies a stream to an optional output while computing its digest.
+     */
+    static String copy(InputStream in, OutputStream out)
+            throws IOException {
+        MessageDigest md = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            md.update(buffer, 0, n);
+            if (out != null) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return toHex(md.digest());
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(
+                    ContentAddressedDistribution.DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.toString());
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    private static boolean isDigest(String digest) {
+        if (digest == null || digest.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < digest.length(); i++) {
+            char c = digest.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class FileDigest {
+        final long length;
+        final long modified;
+        final String digest;
+
+        FileDigest(long length, long modified, String digest) {
+            this.length = length;
+            this.modified = modified;
+            this.digest = digest;
+        }
+    }
+}
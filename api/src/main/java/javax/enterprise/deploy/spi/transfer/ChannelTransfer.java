@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.transfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.deploy.shared.ActionType;
+import javax.enterprise.deploy.shared.StateType;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.status.BasicDeploymentStatus;
+import javax.enterprise.deploy.spi.status.ProgressObjectSupport;
+
+/**
+ * Sends module archives and deployment plans from disk to a channel for
+ * the File based distribute and redeploy operations of a
+ * DeploymentManager, and reports the progress through a ProgressObject.
+ *
+ * <p> Files are sent with {@link FileChannel#transferTo}, which lets the
+ * operating system move the bytes from the file system cache to the
+ * channel without copying them through the Java heap when the channel is
+ * a SocketChannel or a FileChannel.  Other channels are written through
+ * a buffer by the JDK, with the same results.  The channel must be in
+ * blocking mode.
+ *
+ * <p> While a transfer runs, running ProgressEvents are fired on the
+ * ProgressObjectSupport at most once per report interval.  Their message
+ * gives the number of bytes sent, the total and the transfer rate in
+ * bytes per second.  A transfer does not change the state of the
+ * operation; the DeploymentManager reports completion or failure once
+ * the target has processed the files.
+ *
+ * <p> A ChannelTransfer is meant for one operation on one target and is
+ * not safe for use by several threads at a time.
+ */
+public class ChannelTransfer {
+    private static final long CHUNK_SIZE = 8L * 1024 * 1024;
+
+    private final ProgressObjectSupport progress;
+    private final TargetModuleID module;
+    private long reportIntervalNanos = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private long total;
+    private long transferred;
+    private long startNanos;
+    private long lastReportNanos;
+    private volatile long bytesPerSecond;
+
+    /**
+     * Creates a transfer reporting to the given ProgressObject.
+     *
+     * @param progress the ProgressObject of the operation.
+     * @param module the TargetModuleID the ProgressEvents refer to, may
+     *               be null if it is not known yet.
+     */
+    public ChannelTransfer(ProgressObjectSupport progress,
+            TargetModuleID module) {
+        if (progress == null) {
+            throw new IllegalArgumentException("progress is null");
+        }
+        this.progress = progress;
+        this.module = module;
+    }
+
+    /**
+     * Sets the minimum time between two ProgressEvents.  The default is
+     * 500 milliseconds.  The end of each file is always reported.
+     *
+     * @param interval the minimum interval, 0 to report every chunk.
+     * @param unit the unit of the interval.
+     */
+    public void setReportInterval(long interval, TimeUnit unit) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Negative interval "
+                    + interval);
+        }
+        reportIntervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * Sends a module archive followed by its deployment plan.  The
+     * channel receives the bytes of the two files back to back; a
+     * protocol that needs to tell them apart sends their lengths first.
+     *
+     * @param moduleArchive the archive file.
+     * @param deploymentPlan the deployment plan file, or null.
+     * @param channel the blocking channel to write to.
+     * @return the number of bytes sent.
+     * @throws IOException if a file could not be read or the channel
+     *                     could not be written.
+     */
+    public long send(File moduleArchive, File deploymentPlan,
+            WritableByteChannel channel) throws IOException {
+        if (deploymentPlan == null) {
+            return send(new File[] {moduleArchive}, channel);
+        }
+        return send(new File[] {moduleArchive, deploymentPlan}, channel);
+    }
+
+    /**
+     * Sends a single file.
+     *
+     * @param file the file to send.
+     * @param channel the blocking channel to write to.
+     * @return the number of bytes sent.
+     * @throws IOException if the file could not be read or the channel
+     *                     could not be written.
+     */
+    public long send(File file, WritableByteChannel channel)
+            throws IOException {
+        return send(new File[] {file}, channel);
+    }
+
+    /**
+     * Returns the number of bytes sent so far by the last send.
+     *
+     * @return the number of bytes sent.
+     */
+    public long getBytesTransferred() {
+        return transferred;
+    }
+
+    /**
+     * Returns the average transfer rate of the last send.
+     *
+     * @return the rate in bytes per second, 0 before anything was sent.
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    private long send(File[] files, WritableByteChannel channel)
+            throws IOException {
+        if (channel instanceof SelectableChannel
+                && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalBlockingModeException();
+        }
+        total = 0;
+        for (int i = 0; i < files.length; i++) {
+            total += files[i].length();
+        }
+        transferred = 0;
+        bytesPerSecond = 0;
+        startNanos = System.nanoTime();
+        lastReportNanos = startNanos;
+        for (int i = 0; i < files.length; i++) {
+            transfer(files[i], channel);
+        }
+        return transferred;
+    }
+
+    private void transfer(File file, WritableByteChannel channel)
+            throws IOException {
+        FileChannel in = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ);
+        try {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long n = in.transferTo(position,
+                        Math.min(CHUNK_SIZE, size - position), channel);
+                if (n <= 0) {
+                    // The file shrank while it was being sent.
+                    throw new IOException("Unexpected end of " + file
+                            + " at " + position + " of " + size
+                            + " bytes");
+                }
+                position += n;
+                transferred += n;
+                report(file, position == size);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private void report(File file, boolean endOfFile) {
+        long now = System.nanoTime();
+        long elapsed = now - startNanos;
+        if (elapsed > 0) {
+            bytesPerSecond = (long) (transferred
+                    * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+        }
+        if (!endOfFile && now - lastReportNanos < reportIntervalNanos) {
+            return;
+        }
+        lastReportNanos = now;
+        progress.fireProgressEvent(module, new BasicDeploymentStatus(
+                StateType.RUNNING,
+                progress.getDeploymentStatus().getCommand(),
+                ActionType.EXECUTE,
+                "Sent " + transferred + " of " + total + " bytes ("
+                + file.getName() + ", " + bytesPerSecond + " bytes/sec)"));
+    }
+}
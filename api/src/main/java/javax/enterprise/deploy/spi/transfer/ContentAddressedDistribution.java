@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.transfer;
+
+import java.io.InputStream;
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+
+/**
+ * An optional extension of a DeploymentManager whose targets keep the
+ * module archives they receive in a content-addressed store.  A tool
+ * that finds a DeploymentManager implementing this interface can ask
+ * which targets already hold an archive, identified by the hexadecimal
+ * SHA-256 digest of its bytes, and distribute or redeploy it to those
+ * targets by digest instead of transferring the archive again.
+ *
+ * <p> The distribute and redeploy methods behave like the corresponding
+ * DeploymentManager methods, except that the module archive is taken
+ * from the target's store.  An operation on a target that does not hold
+ * the archive fails.
+ *
+ * @see ArchiveDistributor
+ */
+public interface ContentAddressedDistribution
+{
+    /**
+     * The digest algorithm identifying archives.
+     */
+    public static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Retrieve the targets that hold the archive with the given digest.
+     *
+     * @param targetList the targets to check.
+     * @param digest the lower case hexadecimal SHA-256 digest of the
+     *               archive.
+     * @return the targets of the list that hold the archive; an empty
+     *         array if none does.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     */
+    public Target[] getTargetsHoldingArchive(Target[] targetList,
+            String digest) throws IllegalStateException;
+
+    /**
+     * Distribute an archive that the targets already hold.
+     *
+     * @param targetList the targets to distribute to.
+     * @param type the module type of the archive, or null to let the
+     *             target determine it.
+     * @param digest the lower case hexadecimal SHA-256 digest of the
+     *               archive.
+     * @param deploymentPlan The input stream containing the deployment
+     *                       configuration information associated with
+     *                       this application archive.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the distribution process.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     */
+    public ProgressObject distributeStored(Target[] targetList,
+            ModuleType type, String digest, InputStream deploymentPlan)
+            throws IllegalStateException;
+
+    /**
+     * Redeploy modules from an archive that their targets already hold.
+     *
+     * @param moduleIDList the root modules to be updated.
+     * @param digest the lower case hexadecimal SHA-256 digest of the
+     *               archive.
+     * @param deploymentPlan The input stream containing the runtime
+     *                       configuration information associated with
+     *                       this application archive.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the redeploy operation.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     * @throws java.lang.UnsupportedOperationException redeploy is not
+     *         supported by this implementation.
+     */
+    public ProgressObject redeployStored(TargetModuleID[] moduleIDList,
+            String digest, InputStream deploymentPlan)
+            throws java.lang.UnsupportedOperationException,
+            IllegalStateException;
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.transfer;
+
+import java.io.InputStream;
+import javax.enterprise.deploy.spi.TargetModuleID;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+
+/**
+ * An optional extension of a DeploymentManager that can redeploy a
+ * module from a delta archive, which carries only the entries that were
+ * added, changed or removed since the archive the module was last
+ * deployed from.  The delta archive format is described by
+ * {@link ArchiveDelta}.
+ *
+ * <p> A tool first asks which modules can apply a delta against a given
+ * base archive and redeploys the remaining modules from the full
+ * archive.  Archives are identified by their
+ * {@link ArchiveDelta#manifestDigest(java.io.File) manifest digest},
+ * which an archive rebuilt from a delta shares with the archive it was
+ * rebuilt to, so a module redeployed from a delta can serve as the base
+ * of the next one.
+ *
+ * @see ArchiveDistributor
+ */
+public interface DeltaRedeployment
+{
+    /**
+     * Retrieve the modules that were deployed from the base archive and
+     * can be redeployed from a delta archive against it.
+     *
+     * @param moduleIDList the root modules to be updated.
+     * @param baseDigest the manifest digest of the archive the modules
+     *                   are expected to be deployed from.
+     * @return the modules of the list that accept a delta; an empty
+     *         array if none does.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     */
+    public TargetModuleID[] getModulesAcceptingDelta(
+            TargetModuleID[] moduleIDList, String baseDigest)
+            throws IllegalStateException;
+
+    /**
+     * Redeploy modules from a delta archive.  The target rebuilds the
+     * new archive from the base archive and the delta, verifies that its
+     * manifest digest is the result digest, as
+     * {@link ArchiveDelta#apply(java.io.File, java.io.File,
+     * java.io.OutputStream)} does, and redeploys the modules from it as
+     * DeploymentManager.redeploy would.
+     *
+     * @param moduleIDList the root modules to be updated.
+     * @param baseDigest the manifest digest of the base archive.
+     * @param resultDigest the manifest digest of the new archive.
+     * @param delta the input stream containing the delta archive.
+     * @param deploymentPlan The input stream containing the runtime
+     *                       configuration information associated with
+     *                       this application archive.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the redeploy operation.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     * @throws java.lang.UnsupportedOperationException redeploy is not
+     *         supported by this implementation.
+     */
+    public ProgressObject redeployDelta(TargetModuleID[] moduleIDList,
+            String baseDigest, String resultDigest, InputStream delta,
+            InputStream deploymentPlan)
+            throws java.lang.UnsupportedOperationException,
+            IllegalStateException;
+}
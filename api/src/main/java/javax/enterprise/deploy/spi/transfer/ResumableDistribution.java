@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+
+/**
+ * An optional extension of a DeploymentManager that accepts module
+ * archives in fixed-size chunks and can resume an interrupted upload.  A
+ * tool that finds a DeploymentManager implementing this interface can
+ * upload a large archive chunk by chunk, so that a dropped connection
+ * costs the chunk being sent rather than the whole archive, and then
+ * distribute the uploaded archive.
+ *
+ * <p> An upload is identified by the hexadecimal SHA-256 digest of the
+ * archive and the targets it is meant for.  The server keeps the bytes
+ * it has received and acknowledges the offset up to which they are
+ * complete; beginning an upload that already exists returns the same
+ * upload, so a tool can resume it after reconnecting.  Every chunk
+ * carries the CRC-32 checksum of its bytes.  A chunk whose checksum does
+ * not match, or that does not start at the acknowledged offset, is
+ * discarded.  Once the last chunk has been received the server checks
+ * the digest of the whole archive.
+ *
+ * @see ResumableUploader
+ */
+public interface ResumableDistribution
+{
+    /**
+     * The checksum algorithm of the chunks.
+     */
+    public static final String CHECKSUM_ALGORITHM = "CRC32";
+
+    /**
+     * Retrieve the size of the chunks.  Every chunk but the last of an
+     * upload has this size.
+     *
+     * @return the chunk size in bytes, greater than 0.
+     */
+    public int getChunkSize();
+
+    /**
+     * Begin or resume the upload of an archive.
+     *
+     * @param targetList the targets the archive will be distributed to.
+     * @param digest the lower case hexadecimal SHA-256 digest of the
+     *               archive.
+     * @param length the length of the archive in bytes.
+     * @return the identifier of the upload.
+     * @throws IOException if the upload could not be begun.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode.
+     */
+    public String beginUpload(Target[] targetList, String digest,
+            long length) throws IOException, IllegalStateException;
+
+    /**
+     * Retrieve the offset up to which the server holds the archive.
+     *
+     * @param uploadId the identifier of the upload.
+     * @return the acknowledged offset.
+     * @throws IOException if the offset could not be retrieved or the
+     *                     upload does not exist.
+     */
+    public long getAcknowledgedOffset(String uploadId) throws IOException;
+
+    /**
+     * Upload a chunk of the archive.
+     *
+     * @param uploadId the identifier of the upload.
+     * @param offset the offset of the chunk in the archive, which must
+     *               be the acknowledged offset.
+     * @param data the buffer holding the chunk.
+     * @param length the number of bytes of the chunk.
+     * @param checksum the CRC-32 checksum of the chunk.
+     * @return the acknowledged offset after the chunk was processed;
+     *         unchanged if the chunk was discarded.
+     * @throws IOException if the chunk could not be sent, or if it was
+     *                     the last chunk and the archive does not match
+     *                     its digest.  In that case the upload starts
+     *                     over.
+     */
+    public long uploadChunk(String uploadId, long offset, byte[] data,
+            int length, long checksum) throws IOException;
+
+    /**
+     * Distribute a completely uploaded archive to the targets of the
+     * upload.  The upload ends when the distribution does.
+     *
+     * @param uploadId the identifier of the upload.
+     * @param type the module type of the archive, or null to let the
+     *             target determine it.
+     * @param deploymentPlan The input stream containing the deployment
+     *                       configuration information associated with
+     *                       this application archive.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the distribution process.
+     * @throws IllegalStateException is thrown when the method is
+     *                    called when running in disconnected mode or the
+     *                    upload is not complete.
+     */
+    public ProgressObject distributeUploaded(String uploadId,
+            ModuleType type, InputStream deploymentPlan)
+            throws IllegalStateException;
+
+    /**
+     * Abandon an upload and discard the bytes received.
+     *
+     * @param uploadId the identifier of the upload.
+     * @throws IOException if the upload could not be abandoned.
+     */
+    public void abortUpload(String uploadId) throws IOException;
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package javax.enterprise.deploy.spi.transfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import javax.enterprise.deploy.shared.ActionType;
+import javax.enterprise.deploy.shared.CommandType;
+import javax.enterprise.deploy.shared.ModuleType;
+import javax.enterprise.deploy.shared.StateType;
+import javax.enterprise.deploy.shared.factories.DeploymentFactoryManager;
+import javax.enterprise.deploy.spi.DeploymentManager;
+import javax.enterprise.deploy.spi.Target;
+import javax.enterprise.deploy.spi.status.BasicDeploymentStatus;
+import javax.enterprise.deploy.spi.status.ProgressEvent;
+import javax.enterprise.deploy.spi.status.ProgressListener;
+import javax.enterprise.deploy.spi.status.ProgressObject;
+import javax.enterprise.deploy.spi.status.ProgressObjectSupport;
+
+/**
+ * Distributes module archives in resumable chunks to DeploymentManagers
+ * that implement {@link ResumableDistribution}, and in one piece to
+ * those that do not.
+ *
+ * <p> The upload runs on an executor and the returned ProgressObject
+ * reports a running ProgressEvent for every acknowledged chunk, then the
+ * events of the distribution itself.  When a chunk fails, the uploader
+ * asks the server for the acknowledged offset and resumes from there,
+ * up to the configured number of consecutive failures.  An upload that
+ * failed in the end is left on the server, so distributing the same
+ * archive to the same targets again resumes it instead of starting
+ * over.
+ *
+ * <p> Archives given as streams are spooled into the ArchiveStore first,
+ * so that they can be read again from any offset.
+ */
+public class ResumableUploader {
+    private final ArchiveStore store;
+    private volatile int maxRetries = 3;
+    private volatile long retryDelayNanos = TimeUnit.SECONDS.toNanos(1);
+    private volatile Executor executor;
+
+    /**
+     * Creates an uploader spooling streamed archives into a store.
+     *
+     * @param store the store holding streamed archives.
+     */
+    public ResumableUploader(ArchiveStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("store is null");
+        }
+        this.store = store;
+    }
+
+    /**
+     * Sets the number of consecutive failed attempts after which an
+     * upload fails.  The default is 3.
+     *
+     * @param maxRetries the number of retries, 0 to fail at once.
+     */
+    public void setMaxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Negative retries "
+                    + maxRetries);
+        }
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Sets the delay before a failed chunk is retried.  The default is
+     * one second.
+     *
+     * @param delay the delay.
+     * @param unit the unit of the delay.
+     */
+    public void setRetryDelay(long delay, TimeUnit unit) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Negative delay " + delay);
+        }
+        this.retryDelayNanos = unit.toNanos(delay);
+    }
+
+    /**
+     * Sets the executor that runs the uploads.  By default the
+     * DeploymentFactoryManager's asynchronous executor is used.
+     *
+     * @param executor the executor, or null for the default.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Distributes an archive file.
+     *
+     * @param manager the DeploymentManager of the targets.
+     * @param targetList the targets to distribute to.
+     * @param type the module type of the archive, or null to let the
+     *             targets determine it.
+     * @param moduleArchive the archive file.
+     * @param deploymentPlan the deployment plan file, or null.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the upload and distribution.
+     * @throws IOException if the archive or plan could not be read.
+     */
+    public ProgressObject distribute(DeploymentManager manager,
+            Target[] targetList, ModuleType type, File moduleArchive,
+            File deploymentPlan) throws IOException {
+        if (!(manager instanceof ResumableDistribution)) {
+            return manager.distribute(targetList, moduleArchive,
+                    deploymentPlan);
+        }
+        return upload((ResumableDistribution) manager, targetList, type,
+                moduleArchive, store.digest(moduleArchive),
+                ArchiveDistributor.read(deploymentPlan));
+    }
+
+    /**
+     * Distributes an archive read from a stream.  The streams are read
+     * to their end but not closed.
+     *
+     * @param manager the DeploymentManager of the targets.
+     * @param targetList the targets to distribute to.
+     * @param type the module type of the archive.
+     * @param moduleArchive the archive bytes.
+     * @param deploymentPlan the deployment plan, or null.
+     * @return ProgressObject an object that tracks and reports the
+     *                       status of the upload and distribution.
+     * @throws IOException if the archive or plan could not be read.
+     */
+    public ProgressObject distribute(DeploymentManager manager,
+            Target[] targetList, ModuleType type, InputStream moduleArchive,
+            InputStream deploymentPlan) throws IOException {
+        String digest = store.store(moduleArchive);
+        byte[] plan = ArchiveDistributor.read(deploymentPlan);
+        File archive = store.getArchive(digest);
+        if (!(manager instanceof ResumableDistribution)) {
+            return ArchiveDistributor.distributeFull(manager, targetList,
+                    type, archive, plan);
+        }
+        return upload((ResumableDistribution) manager, targetList, type,
+                archive, digest, plan);
+    }
+
+    private ProgressObject upload(final ResumableDistribution rd,
+            final Target[] targetList, final ModuleType type,
+            final File archive, final String digest, final byte[] plan) {
+        final ProgressObjectSupport po =
+                new ProgressObjectSupport(CommandType.DISTRIBUTE);
+        Executor exec = executor != null ? executor
+                : DeploymentFactoryManager.getInstance().getAsyncExecutor();
+        exec.execute(new Runnable() {
+            public void run() {
+                try {
+                    int chunkSize = rd.getChunkSize();
+                    if (chunkSize <= 0) {
+                        po.fireProgressEvent(null, status(StateType.FAILED,
+                                "Upload of " + archive.getName()
+                                + " failed: the DeploymentManager reported"
+                                + " an invalid chunk size of " + chunkSize
+                                + " bytes"));
+                        return;
+                    }
+                    String uploadId = rd.beginUpload(targetList, digest,
+                            archive.length());
+                    sendChunks(rd, uploadId, archive, chunkSize, po);
+                    forward(rd.distributeUploaded(uploadId, type,
+                            ArchiveDistributor.stream(plan)), po);
+                } catch (Exception e) {
+                    po.fireProgressEvent(null, status(StateType.FAILED,
+                            "Upload of " + archive.getName() + " failed: "
+                            + e));
+                }
+            }
+        });
+        return po;
+    }
+
+    private void sendChunks(ResumableDistribution rd, String uploadId,
+            File archive, int chunkSize, ProgressObjectSupport po)
+            throws IOException {
+        long length = archive.length();
+        long chunks = (length + chunkSize - 1) / chunkSize;
+        byte[] buffer = new byte[(int) Math.min(chunkSize, length)];
+        CRC32 crc = new CRC32();
+        RandomAccessFile in = new RandomAccessFile(archive, "r");
+        try {
+            // A negative offset means the acknowledged offset is unknown.
+            long offset = -1;
+            int failures = 0;
+            while (true) {
+                try {
+                    if (offset < 0) {
+                        offset = rd.getAcknowledgedOffset(uploadId);
+                    }
+                    if (offset >= length) {
+                        return;
+                    }
+                    int n = (int) Math.min(chunkSize, length - offset);
+                    in.seek(offset);
+                    in.readFully(buffer, 0, n);
+                    crc.reset();
+                    crc.update(buffer, 0, n);
+                    long acknowledged = rd.uploadChunk(uploadId, offset,
+                            buffer, n, crc.getValue());
+                    if (acknowledged <= offset) {
+                        offset = acknowledged;
+                        throw new IOException("Chunk at offset " + offset
+                                + " was not acknowledged");
+                    }
+                    offset = acknowledged;
+                    failures = 0;
+                    po.fireProgressEvent(null, status(StateType.RUNNING,
+                            "Uploaded chunk "
+                            + ((offset + chunkSize - 1) / chunkSize)
+                            + " of " + chunks + " (" + offset + " of "
+                            + length + " bytes)"));
+                } catch (IOException e) {
+                    if (++failures > maxRetries) {
+                        throw e;
+                    }
+                    po.fireProgressEvent(null, status(StateType.RUNNING,
+                            "Retrying upload after " + e));
+                    offset = -1;
+                    pause();
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private void pause() throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(retryDelayNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+    }
+
+    /**
+     * Re-delivers the events of the distribution as events of the
+     * upload, and completes the upload with the distribution.
+     */
+    private static void forward(final ProgressObject distribution,
+            final ProgressObjectSupport po) {
+        final AtomicBoolean done = new AtomicBoolean();
+        ProgressListener listener = new ProgressListener() {
+            public void handleProgressEvent(ProgressEvent event) {
+                if (!finish(distribution, po, done)) {
+                    po.fireProgressEvent(event.getTargetModuleID(),
+                            event.getDeploymentStatus());
+                }
+            }
+        };
+        distribution.addProgressListener(listener);
+        finish(distribution, po, done);
+    }
+
+    private static boolean finish(ProgressObject distribution,
+            ProgressObjectSupport po, AtomicBoolean done) {
+        if (!BasicDeploymentStatus.isTerminal(
+                distribution.getDeploymentStatus())) {
+            return false;
+        }
+        if (done.compareAndSet(false, true)) {
+            po.addResultTargetModuleIDs(
+                    distribution.getResultTargetModuleIDs());
+            po.fireProgressEvent(null, distribution.getDeploymentStatus());
+        }
+        return true;
+    }
+
+    private static BasicDeploymentStatus status(StateType state,
+            String message) {
+        return new BasicDeploymentStatus(state, CommandType.DISTRIBUTE,
+                ActionType.EXECUTE, message);
+    }
+}